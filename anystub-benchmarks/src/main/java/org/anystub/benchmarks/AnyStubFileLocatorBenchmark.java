@@ -0,0 +1,51 @@
+package org.anystub.benchmarks;
+
+import org.anystub.AnyStubFileLocator;
+import org.anystub.AnyStubId;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * looking up stub settings in the call stack
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AnyStubFileLocatorBenchmark {
+
+    @Benchmark
+    @AnyStubId(filename = "benchmark")
+    public AnyStubId annotatedMethod() {
+        return AnyStubFileLocator.discoverFile();
+    }
+
+    @Benchmark
+    public AnyStubId notAnnotated() {
+        return AnyStubFileLocator.discoverFile();
+    }
+
+    @Benchmark
+    @AnyStubId(filename = "benchmark")
+    public AnyStubId nestedCall() {
+        return lookup(8);
+    }
+
+    private static AnyStubId lookup(int depth) {
+        if (depth == 0) {
+            return AnyStubFileLocator.discoverFile();
+        }
+        return lookup(depth - 1);
+    }
+}
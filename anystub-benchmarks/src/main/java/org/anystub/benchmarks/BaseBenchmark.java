@@ -0,0 +1,97 @@
+package org.anystub.benchmarks;
+
+import org.anystub.Base;
+import org.anystub.Document;
+import org.anystub.RequestMode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.NoSuchElementException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Base.request2 through Base.request(supplier, keys):
+ * - hit - the key is in the stub
+ * - miss - the key isn't in the stub and the stub doesn't allow to call the supplier
+ * - record - the key isn't in the stub, the supplier is called and the document is written into the file
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BaseBenchmark {
+
+    @Param({"1000"})
+    public int documents;
+
+    private Path dir;
+    private Base hits;
+    private Base misses;
+    private Base records;
+    private String[][] keys;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        dir = StubFiles.tempDir();
+        keys = new String[documents][];
+        for (int i = 0; i < documents; i++) {
+            keys[i] = new String[]{"GET", "http://localhost/api/" + i, "Accept: application/json"};
+        }
+
+        Path stub = StubFiles.write(dir.resolve("hits.yml"), documents);
+        hits = new Base(stub.toString());
+        hits.request(() -> "warm up", keys[0]);
+
+        misses = new Base(stub.toString())
+                .constrain(RequestMode.rmNone);
+        misses.request(() -> "warm up", keys[0]);
+    }
+
+    @Setup(Level.Iteration)
+    public void setupRecording() {
+        records = new Base(dir.resolve("records.yml").toString())
+                .constrain(RequestMode.rmAll);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        StubFiles.delete(dir);
+    }
+
+    @Benchmark
+    public String hit() {
+        next = (next + 1) % documents;
+        return hits.request(() -> "never", keys[next]);
+    }
+
+    @Benchmark
+    public Object miss() {
+        try {
+            return misses.request(() -> "never", "missing", Integer.toString(next++));
+        } catch (NoSuchElementException e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public String record() {
+        String key = Integer.toString(next++);
+        return records.request(() -> Document.key_to_string("response", key), "POST", key);
+    }
+}
@@ -0,0 +1,69 @@
+package org.anystub.benchmarks;
+
+import org.anystub.http.HttpUtil;
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpVersion;
+import org.apache.http.entity.ContentType;
+import org.apache.http.entity.StringEntity;
+import org.apache.http.message.BasicHttpResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * converting HttpResponse to strings of a document and back
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HttpUtilBenchmark {
+
+    @Param({"1024", "1048576"})
+    public int bodySize;
+
+    private String body;
+    private List<String> encoded;
+
+    @Setup
+    public void setup() {
+        StringBuilder builder = new StringBuilder("{\"items\":[");
+        for (int i = 0; builder.length() < bodySize; i++) {
+            builder.append("{\"id\":").append(i).append(",\"name\":\"item ").append(i).append("\"},");
+        }
+        builder.append("{}]}");
+        body = builder.toString();
+        encoded = HttpUtil.encode(response());
+    }
+
+    @Benchmark
+    public List<String> encode() {
+        return HttpUtil.encode(response());
+    }
+
+    @Benchmark
+    public HttpResponse decode() {
+        return HttpUtil.decode(encoded);
+    }
+
+    private HttpResponse response() {
+        BasicHttpResponse response = new BasicHttpResponse(HttpVersion.HTTP_1_1, 200, "OK");
+        response.setHeader("Content-Type", "application/json");
+        response.setHeader("Cache-Control", "no-cache");
+        response.setEntity(new StringEntity(body, ContentType.APPLICATION_JSON));
+        return response;
+    }
+}
@@ -0,0 +1,104 @@
+package org.anystub.benchmarks;
+
+import org.anystub.jdbc.ResultSetUtil;
+import org.h2.tools.SimpleResultSet;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * converting wide result sets to strings of a document and back
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResultSetUtilBenchmark {
+
+    private static final int[] TYPES = {Types.VARCHAR, Types.INTEGER, Types.BIGINT, Types.DOUBLE, Types.TIMESTAMP};
+
+    @Param({"10", "100"})
+    public int columns;
+
+    @Param({"100", "1000"})
+    public int rows;
+
+    private SimpleResultSet resultSet;
+    private List<String> encoded;
+
+    @Setup
+    public void setup() {
+        resultSet = new SimpleResultSet();
+        resultSet.setAutoClose(false);
+        for (int c = 0; c < columns; c++) {
+            resultSet.addColumn("COLUMN_" + c, TYPES[c % TYPES.length], 20, 0);
+        }
+        Timestamp timestamp = Timestamp.valueOf("2024-01-02 03:04:05");
+        for (int r = 0; r < rows; r++) {
+            Object[] row = new Object[columns];
+            for (int c = 0; c < columns; c++) {
+                switch (TYPES[c % TYPES.length]) {
+                    case Types.VARCHAR:
+                        row[c] = "value " + r + ":" + c;
+                        break;
+                    case Types.INTEGER:
+                        row[c] = r * c;
+                        break;
+                    case Types.BIGINT:
+                        row[c] = (long) r * Integer.MAX_VALUE;
+                        break;
+                    case Types.DOUBLE:
+                        row[c] = r / (c + 1.0);
+                        break;
+                    default:
+                        row[c] = timestamp;
+                }
+            }
+            resultSet.addRow(row);
+        }
+        encoded = encode();
+    }
+
+    @Benchmark
+    public List<String> encode() {
+        try {
+            resultSet.beforeFirst();
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+        return ResultSetUtil.encode(resultSet);
+    }
+
+    @Benchmark
+    public ResultSet decode() {
+        return ResultSetUtil.decode(encoded);
+    }
+
+    @Benchmark
+    public void decodeAndRead(Blackhole blackhole) throws SQLException {
+        ResultSet decoded = ResultSetUtil.decode(encoded);
+        while (decoded.next()) {
+            for (int c = 1; c <= columns; c++) {
+                blackhole.consume(decoded.getObject(c));
+            }
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package org.anystub.benchmarks;
+
+import org.anystub.AnyStubId;
+import org.anystub.AnyStubIdData;
+import org.anystub.RequestMode;
+import org.anystub.StubClientHttpConnector;
+import org.anystub.Util;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.reactive.ClientHttpConnector;
+import org.springframework.http.client.reactive.ClientHttpRequest;
+import org.springframework.http.client.reactive.ClientHttpResponse;
+import org.springframework.mock.http.client.reactive.MockClientHttpResponse;
+import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * replaying a recorded response through StubClientHttpConnector.
+ * a new connector is used for every call, so its in-flight cache doesn't hide the replay
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StubClientHttpConnectorBenchmark {
+
+    private static final URI ITEMS = URI.create("http://localhost:8080/api/items");
+    private static final Function<ClientHttpRequest, Mono<Void>> NO_BODY = ClientHttpRequest::setComplete;
+
+    private Path dir;
+    private Context context;
+    private final ClientHttpConnector real = new ClientHttpConnector() {
+        @Override
+        public Mono<ClientHttpResponse> connect(HttpMethod method, URI uri,
+                                                Function<? super ClientHttpRequest, Mono<Void>> requestCallback) {
+            MockClientHttpResponse response = new MockClientHttpResponse(HttpStatus.OK);
+            response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+            response.setBody("{\"items\":[{\"id\":1,\"name\":\"item 1\"},{\"id\":2,\"name\":\"item 2\"}]}");
+            return Mono.just(response);
+        }
+    };
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        dir = StubFiles.tempDir();
+        AnyStubId settings = AnyStubIdData.builder()
+                .setFilename(dir.resolve("connector.yml").toString())
+                .setRequestMode(RequestMode.rmNew)
+                .setParamMasks(new String[0])
+                .setConfig("config")
+                .build();
+        context = Context.of(AnyStubId.class, settings);
+        // records the response
+        replay();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        StubFiles.delete(dir);
+    }
+
+    @Benchmark
+    public String replay() {
+        return new StubClientHttpConnector(real)
+                .connect(HttpMethod.GET, ITEMS, NO_BODY)
+                .flatMap(response -> Util.extractStringMono(response.getBody()))
+                .contextWrite(context)
+                .block();
+    }
+}
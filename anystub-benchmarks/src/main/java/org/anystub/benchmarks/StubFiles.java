@@ -0,0 +1,51 @@
+package org.anystub.benchmarks;
+
+import org.anystub.Document;
+import org.anystub.StubStorage;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * generates stub-files for benchmarks
+ */
+final class StubFiles {
+
+    private StubFiles() {
+    }
+
+    static Path tempDir() throws IOException {
+        return Files.createTempDirectory("anystub-benchmarks");
+    }
+
+    static List<Document> documents(int count) {
+        List<Document> res = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            res.add(new Document(
+                    new String[]{"GET", "http://localhost/api/" + i, "Accept: application/json"},
+                    new String[]{"HTTP/1.1", "200", "OK", "Content-Type: application/json",
+                            "{\"id\":" + i + ",\"name\":\"item " + i + "\",\"tags\":[\"a\",\"b\",\"c\"]}"}));
+        }
+        return res;
+    }
+
+    /**
+     * writes a stub-file, format is defined by the extension of the file
+     */
+    static Path write(Path file, int count) throws IOException {
+        StubStorage.forFile(file.toString()).write(documents(count));
+        return file;
+    }
+
+    static void delete(Path dir) throws IOException {
+        try (Stream<Path> files = Files.walk(dir)) {
+            files.sorted(Comparator.reverseOrder())
+                    .forEach(p -> p.toFile().delete());
+        }
+    }
+}
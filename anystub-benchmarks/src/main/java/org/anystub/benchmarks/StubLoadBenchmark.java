@@ -0,0 +1,73 @@
+package org.anystub.benchmarks;
+
+import org.anystub.Base;
+import org.anystub.Document;
+import org.anystub.StubStorage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * cold start of a stub: loading a stub-file of N documents and the first lookup
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class StubLoadBenchmark {
+
+    @Param({"100", "10000"})
+    public int documents;
+
+    @Param({"yml", "bin"})
+    public String format;
+
+    private Path dir;
+    private Path stub;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        dir = StubFiles.tempDir();
+        stub = StubFiles.write(dir.resolve("stub." + format), documents);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        StubFiles.delete(dir);
+    }
+
+    @Benchmark
+    public List<Document> load() throws IOException {
+        return StubStorage.forFile(stub.toString()).load();
+    }
+
+    @Benchmark
+    public String firstHit() {
+        return new Base(stub.toString())
+                .request("GET", "http://localhost/api/" + (documents / 2), "Accept: application/json");
+    }
+
+    @Benchmark
+    public String firstHitLazy() {
+        return new Base(stub.toString())
+                .lazyLoad(true)
+                .request("GET", "http://localhost/api/" + (documents / 2), "Accept: application/json");
+    }
+}
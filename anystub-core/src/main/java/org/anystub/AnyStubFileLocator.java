@@ -1,13 +1,34 @@
 package org.anystub;
 
+import java.lang.reflect.Method;
 import java.util.ArrayList;
-import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static java.util.Arrays.asList;
 
 public class AnyStubFileLocator {
 
+    private static final StackWalker walker = StackWalker.getInstance(StackWalker.Option.RETAIN_CLASS_REFERENCE);
+
+    /**
+     * {@link AnyStubId} annotations declared by a class and its methods
+     */
+    private static final ClassValue<AnnotationIndex> annotationIndex = new ClassValue<>() {
+        @Override
+        protected AnnotationIndex computeValue(Class<?> type) {
+            return new AnnotationIndex(type);
+        }
+    };
+
+    /**
+     * resolved runtime data for a call site - test class + method
+     */
+    private static final ConcurrentHashMap<CallSite, Optional<AnyStubId>> resolved = new ConcurrentHashMap<>();
+
     private AnyStubFileLocator() {
     }
 
@@ -15,79 +36,86 @@ public class AnyStubFileLocator {
      * looks for runtime data about current stub file in the call point.
      * It tracks stack-trace up to the first method or class/method annotated
      * with @AnystubId and extracts defined parameters
-     *
+     * <p>
+     * results are cached per test class + method, so only the stack walk is repeated for the same test
      *
      * @return runtime data, if no annotation found returns null
      */
     public static AnyStubId discoverFile() {
-        AnyStubId effectiveId = null;
-        String filename = null;
-        StackTraceElement[] stackTrace = Thread.currentThread().getStackTrace();
-        for (StackTraceElement s : stackTrace) {
-            if (s.getMethodName().startsWith("lambda$")) {
-                continue;
-            }
-            try {
-                Class<?> aClass = Class.forName(s.getClassName());
+        AnyStubId discovered = walker.walk(frames -> frames
+                .filter(frame -> !frame.getMethodName().startsWith("lambda$"))
+                .filter(frame -> annotationIndex.get(frame.getDeclaringClass()).isAnnotated())
+                .map(frame -> resolved.computeIfAbsent(new CallSite(frame.getDeclaringClass(), frame.getMethodName()),
+                        AnyStubFileLocator::resolve))
+                .filter(Optional::isPresent)
+                .map(Optional::get)
+                .findFirst()
+                .orElse(null));
+        if (discovered != null) {
+            // resolved ids are cached by call site, so each test has own partition of history
+            HistoryPartition.discovered(discovered);
+        } else {
+            HistoryPartition.undiscovered();
+        }
+        return discovered;
+    }
 
-                AnyStubId methodId = methodInfo(s, aClass);
+    /**
+     * forgets resolved call sites. the next discovering walks annotations again
+     */
+    public static void reset() {
+        resolved.clear();
+    }
 
-                if (methodId != null) {
-                    if (methodId.filename().isEmpty()) {
-                        boolean testFilePrefix = ConfigFileUtil.get(methodId.config()).testFilePrefix;
-                        if (testFilePrefix) {
-                            AnyStubId classId = aClass.getDeclaredAnnotation(AnyStubId.class);
-                            String prefix = (classId == null || classId.filename().isEmpty()) ?
-                                    aClass.getSimpleName() :
-                                    classId.filename();
-                            filename = prefix + "-" + s.getMethodName();
-                        } else {
-                            filename = s.getMethodName();
-                        }
-                    } else {
-                        filename = methodId.filename();
-                    }
-                    effectiveId = methodId;
+    private static Optional<AnyStubId> resolve(CallSite callSite) {
+        AnnotationIndex index = annotationIndex.get(callSite.aClass);
+        String methodName = callSite.methodName;
+        String filename;
+
+        AnyStubId effectiveId = index.methodIds.get(methodName);
+        if (effectiveId != null) {
+            if (effectiveId.filename().isEmpty()) {
+                boolean testFilePrefix = ConfigFileUtil.get(effectiveId.config()).testFilePrefix;
+                if (testFilePrefix) {
+                    AnyStubId classId = index.classId;
+                    String prefix = (classId == null || classId.filename().isEmpty()) ?
+                            callSite.aClass.getSimpleName() :
+                            classId.filename();
+                    filename = prefix + "-" + methodName;
                 } else {
-                    AnyStubId classId = aClass.getDeclaredAnnotation(AnyStubId.class);
-                    if (classId != null) {
-                        String prefix = classId.filename().isEmpty() ?
-                                aClass.getSimpleName() :
-                                classId.filename();
-                        String suffix = s.getMethodName().startsWith("<") ||
-                                !ConfigFileUtil.get(classId.config()).testFilePrefix ?
-                                "":
-                                "-"+s.getMethodName();
-                        filename = prefix + suffix;
-                        effectiveId = classId;
-                    }
+                    filename = methodName;
                 }
-            } catch (ClassNotFoundException ignored) {
-                // it's acceptable that some class/method is not found
-                // need to investigate when that happens
+            } else {
+                filename = effectiveId.filename();
             }
-            if (filename != null) {
-                break;
-            }
-        }
-        if (effectiveId == null) {
-            return null;
+        } else if (index.classId != null) {
+            effectiveId = index.classId;
+            String prefix = effectiveId.filename().isEmpty() ?
+                    callSite.aClass.getSimpleName() :
+                    effectiveId.filename();
+            String suffix = methodName.startsWith("<") ||
+                    !ConfigFileUtil.get(effectiveId.config()).testFilePrefix ?
+                    "":
+                    "-"+methodName;
+            filename = prefix + suffix;
+        } else {
+            return Optional.empty();
         }
 
-        if (!filename.endsWith(".yml")) {
+        if (!filename.endsWith(".yml") && !filename.endsWith(BinaryStubStorage.EXTENSION)) {
             filename += ".yml";
         }
 
-
         TestSettings testSettings = ConfigFileUtil.get(effectiveId.config());
         String [] effectiveMasks = combineArrays(effectiveId.requestMasks(), testSettings.requestMask);
 
-        return AnyStubIdData.builder()
+        return Optional.of(AnyStubIdData.builder()
                 .setFilename(filename)
                 .setRequestMode(effectiveId.requestMode())
                 .setParamMasks(effectiveMasks)
                 .setConfig(effectiveId.config())
-                .build();
+                .setHistory(effectiveId.history())
+                .build());
     }
 
     public static String[] combineArrays(String [] one, String[] two) {
@@ -100,22 +128,6 @@ public class AnyStubFileLocator {
         return strings.stream().distinct().toArray(String[]::new);
     }
 
-    /**
-     *
-     * @param s current stack trace element
-     * @param aClass related class for the stack trace element
-     * @return method's annotation
-     */
-    private static AnyStubId methodInfo(StackTraceElement s, Class<?> aClass) {
-
-        return Arrays.stream(aClass.getDeclaredMethods())
-                .filter(method -> method.getName().equals(s.getMethodName()))
-                .filter(method -> method.getAnnotation(AnyStubId.class) != null)
-                .findFirst()
-                .map(method -> method.getAnnotation(AnyStubId.class))
-                .orElse(null);
-    }
-
     /**
      * looks for runtime data about current stub file in the call point with discoverFile().
      * if the runtime data found update the filename with given suffix
@@ -140,6 +152,49 @@ public class AnyStubFileLocator {
                 .setRequestMode(s.requestMode())
                 .setParamMasks(s.requestMasks())
                 .setConfig(s.config())
+                .setHistory(s.history())
                 .build();
     }
+
+    private static class CallSite {
+        final Class<?> aClass;
+        final String methodName;
+
+        CallSite(Class<?> aClass, String methodName) {
+            this.aClass = aClass;
+            this.methodName = methodName;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            CallSite callSite = (CallSite) o;
+            return aClass.equals(callSite.aClass) && methodName.equals(callSite.methodName);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * aClass.hashCode() + methodName.hashCode();
+        }
+    }
+
+    private static class AnnotationIndex {
+        final AnyStubId classId;
+        final Map<String, AnyStubId> methodIds = new HashMap<>();
+
+        AnnotationIndex(Class<?> aClass) {
+            classId = aClass.getDeclaredAnnotation(AnyStubId.class);
+            for (Method method : aClass.getDeclaredMethods()) {
+                AnyStubId methodId = method.getAnnotation(AnyStubId.class);
+                if (methodId != null) {
+                    methodIds.putIfAbsent(method.getName(), methodId);
+                }
+            }
+        }
+
+        boolean isAnnotated() {
+            return classId != null || !methodIds.isEmpty();
+        }
+    }
 }
@@ -32,6 +32,7 @@ public @interface AnyStubId {
      * Specifies a file name for current stub.
      * If not specified - name of testMethod/testClass is used.
      * Automatically adds extension - .yml if missing
+     * Use extension .bin to keep the stub in binary format, see {@link BinaryStubStorage}
      * example:
      *
      * `@Test`
@@ -80,4 +81,13 @@ public @interface AnyStubId {
      *
      */
     String config() default "config";
+
+    /**
+     * Specifies how the stub keeps requests, see {@link HistoryMode}.
+     * if not specified the mode from the test configuration is used
+     *
+     * ```@AnyStubId(history = HistoryMode.hmCounters)```
+     * keeps only number of requests by keys
+     */
+    HistoryMode[] history() default {};
 }
@@ -8,16 +8,26 @@ public class AnyStubIdData implements AnyStubId {
     private final RequestMode requestMode;
     private final String[] paramMasks;
     private final String config;
+    private final HistoryMode[] history;
 
     public AnyStubIdData(String filename,
                          RequestMode requestMode,
                          String[] paramMasks,
 
                          String config) {
+        this(filename, requestMode, paramMasks, config, new HistoryMode[0]);
+    }
+
+    public AnyStubIdData(String filename,
+                         RequestMode requestMode,
+                         String[] paramMasks,
+                         String config,
+                         HistoryMode[] history) {
         this.filename = filename;
         this.requestMode = requestMode;
         this.paramMasks = paramMasks;
         this.config = config;
+        this.history = history;
     }
 
     @Override
@@ -40,6 +50,11 @@ public class AnyStubIdData implements AnyStubId {
         return config;
     }
 
+    @Override
+    public HistoryMode[] history() {
+        return history;
+    }
+
     public Class<? extends Annotation> annotationType() {
         return AnyStubIdData.class;
     }
@@ -54,6 +69,7 @@ public class AnyStubIdData implements AnyStubId {
           private RequestMode requestMode;
           private String[] paramMasks;
           private String config;
+          private HistoryMode[] history = new HistoryMode[0];
 
         public Builder setFilename(String filename) {
             this.filename = filename;
@@ -75,12 +91,18 @@ public class AnyStubIdData implements AnyStubId {
             return this;
         }
 
+        public Builder setHistory(HistoryMode[] history) {
+            this.history = history;
+            return this;
+        }
+
         public AnyStubIdData build() {
             return new AnyStubIdData(
                     filename,
                     requestMode,
                     paramMasks,
-                    config);
+                    config,
+                    history);
         }
     }
 }
@@ -1,31 +1,29 @@
 package org.anystub;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import org.yaml.snakeyaml.DumperOptions;
-import org.yaml.snakeyaml.LoaderOptions;
-import org.yaml.snakeyaml.Yaml;
 
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.FileNotFoundException;
-import java.io.FileOutputStream;
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.InputStreamReader;
-import java.io.OutputStreamWriter;
 import java.io.Serializable;
-import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Comparator;
 import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.logging.Logger;
 import java.util.stream.Stream;
 
+import static java.util.Arrays.asList;
 import static java.util.Collections.singletonList;
 import static org.anystub.RequestMode.rmAll;
 import static org.anystub.RequestMode.rmFake;
@@ -44,24 +42,69 @@ import static org.anystub.RequestMode.rmTrack;
  */
 public class Base {
 
+    /**
+     * suffix of the folder next to the stub-file which keeps its side files, e.g. large http bodies
+     */
+    public static final String SIDE_FOLDER_SUFFIX = ".bodies";
+
     private static final Logger log = Logger.getLogger(Base.class.getName());
-    private final DocumentListI documentList = new DocumentList();
-    private TrackedDocumentList documentListTrackIterator;
-    private final List<Document> requestHistory = new ArrayList<>();
+    /**
+     * in-memory documents, replaced on {@link #unload()} and on reload, lock-free readers keep using the former list
+     */
+    private volatile DocumentListI documents = new DocumentList();
+    private volatile DocumentListI documentList = documents;
+    private volatile TrackedDocumentList documentListTrackIterator;
+    private volatile RequestHistory requestHistory = RequestHistory.of(HistoryMode.hmFull, 0);
+    private volatile HistoryMode historyMode = HistoryMode.hmFull;
+    private volatile int historySize = 0;
+    private volatile boolean partitionHistory = false;
     private final String filePath;
+    private final StubStorage storage;
     /**
      * shows if any document already saved in the file
      */
-    private boolean isNew = true;
-    private RequestMode requestMode = rmNew;
+    private volatile boolean isNew = true;
+    private volatile RequestMode requestMode = rmNew;
+    private volatile boolean lazyLoad = false;
+    private volatile boolean fillStackTrace = true;
+    private volatile DecodedCache decodedCache = null;
+
+    /**
+     * guards reading and writing of the stub-file.
+     * it's not held while requests look up documents, so recording doesn't block replaying
+     */
+    private final Object fileLock = new Object();
+
+    /**
+     * keeps a monitor for every key which is being recorded at the moment.
+     * concurrent requests with the same key wait for the first one and replay its result,
+     * requests with different keys don't block each other
+     */
+    private final ConcurrentHashMap<List<String>, Object> inFlight = new ConcurrentHashMap<>();
 
     /**
-     * delimiter between last element in existing file and new elements
-     * stub could be manually modified so there could be several possible variants to make the yaml valid
-     * Base calculates it on load
-     * resets after the first use
+     * documents which are recorded but not written into the stub-file yet, guarded by fileLock
+     */
+    private final List<Document> pending = new ArrayList<>();
+    /**
+     * documents recorded by non-blocking requests, they are moved to pending on flush without waiting for fileLock
+     */
+    private final Queue<Document> deferred = new ConcurrentLinkedQueue<>();
+    /**
+     * shows if loading of the stub-file was attempted since creation or the last clear
+     */
+    private volatile boolean loadAttempted = false;
+    /**
+     * shows that documents of the stub-file are released from memory, see {@link #unload()}
+     */
+    private volatile boolean unloaded = false;
+    private ScheduledFuture<?> scheduledFlush;
+    private volatile int flushSize = 1;
+    /**
+     * estimated heap taken by documents kept in memory, see {@link #heapEstimate()}
      */
-    private String firstYamlDelimiter = "";
+    private final AtomicLong heapEstimate = new AtomicLong();
+    private volatile long flushMillis = 0;
 
     /**
      * creates stub in specific path.
@@ -76,6 +119,7 @@ public class Base {
      */
     public Base(String path) {
         this.filePath = path;
+        this.storage = StubStorage.forFile(path);
     }
 
     /**
@@ -96,7 +140,7 @@ public class Base {
                     break;
                 case rmTrack:
                     try {
-                        List<Document> documents = loadStub(filePath);
+                        List<Document> documents = storage.load();
                         if (documents.isEmpty()) {
                             documentListTrackIterator = null;
                         } else {
@@ -117,6 +161,135 @@ public class Base {
         return this;
     }
 
+    /**
+     * enables lazy loading of binary stub-files: the file is memory-mapped,
+     * only its index is read on load and documents are decoded when they are requested.
+     * it has no effect on yaml stub-files and on the stub-file which is already loaded
+     *
+     * @param lazyLoad true to enable lazy loading
+     * @return this to cascade operations
+     */
+    public Base lazyLoad(boolean lazyLoad) {
+        this.lazyLoad = lazyLoad;
+        return this;
+    }
+
+    /**
+     * replayed exceptions of unknown classes are thrown as RuntimeException with a stack trace by default.
+     * turn it off when a test replays many exceptions and doesn't need the stack trace.
+     * exceptions of recorded classes are built by their constructors, so they still fill their stack trace
+     *
+     * @param fillStackTrace false to skip the stack walk
+     * @return this to cascade operations
+     */
+    public Base fillStackTrace(boolean fillStackTrace) {
+        this.fillStackTrace = fillStackTrace;
+        return this;
+    }
+
+    /**
+     * enables memoization of decoded responses with {@link ConfigFileUtil#DEFAULT_MEMO_SIZE} entries, see {@link #memoize(int)}
+     *
+     * @param memoize true to reuse decoded responses
+     * @return this to cascade operations
+     */
+    public Base memoize(boolean memoize) {
+        return memoize(memoize ? ConfigFileUtil.DEFAULT_MEMO_SIZE : 0);
+    }
+
+    /**
+     * enables memoization of decoded responses for decoders which support it, see {@link ReusableDecoder}.
+     * a document is decoded once, next replays of the document get the same object if it's immutable or its copy.
+     * responses requested by class or type reference are memoized only if their type is immutable:
+     * strings, boxed primitives, big numbers, uuids, enums and java.time types
+     *
+     * @param maxSize max number of kept responses, the least recently used ones are dropped. 0 - disables memoization
+     * @return this to cascade operations
+     */
+    public Base memoize(int maxSize) {
+        this.decodedCache = maxSize > 0 ? new DecodedCache(maxSize) : null;
+        return this;
+    }
+
+    /**
+     * enables write-behind of recorded documents.
+     * documents are written into the stub-file by batches when:
+     * - flushSize documents are collected
+     * - flushMillis passed since the first document of a batch was recorded (0 - no time limit)
+     * - the stub is loaded, cleared or flushed explicitly
+     * - jvm shuts down
+     * by default every document is written immediately
+     *
+     * @param flushSize   size of a batch, 1 - writes every document immediately
+     * @param flushMillis max delay of writing a document
+     * @return this to cascade operations
+     */
+    public Base writeBehind(int flushSize, long flushMillis) {
+        this.flushSize = Math.max(1, flushSize);
+        this.flushMillis = Math.max(0, flushMillis);
+        return this;
+    }
+
+    /**
+     * sets how the stub keeps requests for history(), match() and times(), see {@link HistoryMode}.
+     * requests kept before are dropped
+     *
+     * @param historyMode mode of the history
+     * @param historySize max number of requests for {@link HistoryMode#hmRing}
+     * @return this to cascade operations
+     */
+    public Base history(HistoryMode historyMode, int historySize) {
+        this.historyMode = historyMode;
+        this.historySize = historySize;
+        this.requestHistory = partitionHistory ?
+                RequestHistory.partitioned(historyMode, historySize) :
+                RequestHistory.of(historyMode, historySize);
+        return this;
+    }
+
+    /**
+     * enables partitioning of the history, so concurrent tests sharing the stub see only own requests
+     * in history(), match() and times(), see {@link HistoryPartition}.
+     * requests kept before are dropped
+     *
+     * @param partitionHistory true to keep requests by partitions
+     * @return this to cascade operations
+     */
+    public Base partitionHistory(boolean partitionHistory) {
+        this.partitionHistory = partitionHistory;
+        return history(historyMode, historySize);
+    }
+
+    /**
+     * applies settings of test configuration
+     *
+     * @param settings test configuration
+     * @return this to cascade operations
+     */
+    public Base configure(TestSettings settings) {
+        return lazyLoad(settings.lazyLoad)
+                .fillStackTrace(settings.fillStackTrace)
+                .memoize(settings.memoize ? settings.memoizeSize : 0)
+                .writeBehind(settings.flushSize, settings.flushMillis)
+                .partitionHistory(settings.partitionHistory)
+                .history(settings.historyMode, settings.historySize);
+    }
+
+    /**
+     * applies settings of the stub and its test configuration,
+     * the history mode of the stub overrides one from the configuration
+     *
+     * @param stubId settings of the stub
+     * @return this to cascade operations
+     */
+    public Base configure(AnyStubId stubId) {
+        TestSettings settings = ConfigFileUtil.get(stubId.config());
+        configure(settings);
+        if (stubId.history().length > 0) {
+            history(stubId.history()[0], settings.historySize);
+        }
+        return this;
+    }
 
     /**
      * Keeps a document in cache.
@@ -126,7 +299,7 @@ public class Base {
      * @return inserted document
      */
     public Document put(Document document) {
-        documentList.add(document);
+        keep(document);
         save(document);
         return document;
     }
@@ -143,7 +316,7 @@ public class Base {
      * @return first value from document's response or empty
      */
     public Optional<String> getOpt(String... keys) {
-        return documentList.getDocument(keys)
+        return getDocument(keys)
                 .map(Document::get);
     }
 
@@ -158,11 +331,21 @@ public class Base {
     public Iterable<String> getVals(String... keys) throws NoSuchElementException {
         return getDocument(keys)
                 .orElseThrow(NoSuchElementException::new)
-                .getVals();
+                .getVals(fillStackTrace);
     }
 
-    private Optional<Document> getDocument(String... keys) {
-        return documentList.getDocument(keys);
+    Optional<Document> getDocument(String... keys) {
+        if (unloaded) {
+            init();
+        }
+        DocumentListI list = documentList;
+        Optional<Document> document = list.getDocument(keys);
+        if (!document.isPresent() && (unloaded || list != documentList)) {
+            // the stub was unloaded while it was looked up, so the lookup is repeated over the reloaded documents
+            init();
+            document = documentList.getDocument(keys);
+        }
+        return document;
     }
 
     /**
@@ -213,8 +396,9 @@ public class Base {
      * @throws E generates an exception if it comes from supplier or recorded in the stub
      */
     public <R, E extends Exception> R request(Supplier<R, E> supplier, Class<R> responseClass, Object... keys) throws E {
+        JsonCodec<R> codec = JsonCodec.forClass(responseClass);
 
-        return request(() -> {
+        return request2(() -> {
                     try {
                         return supplier.get();
                     } catch (Exception e) {
@@ -225,8 +409,8 @@ public class Base {
                         }
                     }
                 },
-                new DecoderJson<R>(responseClass),
-                new EncoderJson<>(),
+                codec,
+                codec,
                 StringUtil.toArray(keys));
     }
 
@@ -245,22 +429,9 @@ public class Base {
      * @throws E generates an exception if it comes from supplier or recorded in the stub
      */
     public <R, E extends Exception> R request(Supplier<R, E> supplier, TypeReference<R> returnType, Object... keys) throws E {
-        DecoderSimple<R> d = new DecoderSimple<R>() {
-            final ObjectMapper objectMapper = ObjectMapperFactory.get();
+        JsonCodec<R> codec = JsonCodec.forType(returnType);
 
-            @Override
-            public R decode(String values) {
-                try {
-                    return objectMapper.readValue(values, returnType);
-                } catch (JsonProcessingException | RuntimeException e) {
-                    log.finest(() -> String.format("cannot recover object %s from %s", returnType, values));
-                }
-                return null;
-            }
-        };
-
-
-        return request(() -> {
+        return request2(() -> {
                     try {
                         return supplier.get();
                     } catch (Exception e) {
@@ -270,11 +441,9 @@ public class Base {
                         throw e;
                     }
                 },
-                d,
-                new EncoderJson<>(),
+                codec,
+                codec,
                 StringUtil.toArray(keys));
-
-
     }
 
     /**
@@ -421,13 +590,14 @@ public class Base {
                 keyGen);
     }
 
-    private final Object request2lock = new Object();
-
     /**
      * Looks for an Object in stub-file or gets it from the supplier.
      * Uses inverter to encode to response to strings, call decodingAndSave to recover and save response
      * and decoder to convert the request and results in the stub-file.
      * Uses keysGen to get keys to match the request in the stub-files
+     * <p>
+     * Replaying of recorded documents doesn't take any lock. Recording takes a lock for the requested key only,
+     * so a slow upstream call doesn't block requests with other keys
      *
      * @param supplier - provides the value from an external system
      * @param decoder  - recovers result from stub
@@ -442,18 +612,6 @@ public class Base {
                                                Decoder<T> decoder,
                                                Inverter<T> inverter,
                                                KeysSupplier keyGen) throws E {
-        T t;
-        synchronized (request2lock) {
-            t = request2Synchronized(supplier, decoder, inverter, keyGen);
-        }
-
-        return t;
-    }
-
-    private <T, E extends Throwable> T request2Synchronized(Supplier<T, E> supplier,
-                                                            Decoder<T> decoder,
-                                                            Inverter<T> inverter,
-                                                            KeysSupplier keyGen) throws E {
 
         if (requestMode == rmPassThrough) {
             return supplier.get();
@@ -467,18 +625,13 @@ public class Base {
 
             Optional<Document> storedDocument = getDocument(keyGenCashed.get());
             if (storedDocument.isPresent()) {
-                requestHistory.add(storedDocument.get());
-                if (storedDocument.get().isNullValue()) {
-                    // it's not necessarily to decode null objects
-                    return null;
-                }
-                return decoder.decode(storedDocument.get().getVals());
+                return replay(storedDocument.get(), decoder);
             }
         } else if (isTrackCache()) {
             Document next = documentListTrackIterator.extractDocument(keyGenCashed.get());
             if (next !=null && next.keyEqual_to(keyGenCashed.get())) {
                 requestHistory.add(next);
-                return decoder.decode(next.getVals());
+                return decoder.decode(next.getVals(fillStackTrace));
             }
         }
 
@@ -486,6 +639,43 @@ public class Base {
             throwNSE(Arrays.toString(keyGenCashed.get()));
         }
 
+        List<String> key = asList(keyGenCashed.get());
+        Object keyLock = inFlight.computeIfAbsent(key, k -> new Object());
+        try {
+            synchronized (keyLock) {
+                if (seekInCache()) {
+                    // the document could be recorded by a concurrent request while this one was waiting
+                    Optional<Document> storedDocument = getDocument(keyGenCashed.get());
+                    if (storedDocument.isPresent()) {
+                        return replay(storedDocument.get(), decoder);
+                    }
+                }
+                return record(supplier, decoder, inverter, keyGenCashed);
+            }
+        } finally {
+            inFlight.remove(key, keyLock);
+        }
+    }
+
+    <T> T replay(Document storedDocument, Decoder<T> decoder) {
+        requestHistory.add(storedDocument);
+        if (storedDocument.isNullValue()) {
+            // it's not necessarily to decode null objects
+            return null;
+        }
+        // throws the recorded exception
+        Iterable<String> values = storedDocument.getVals(fillStackTrace);
+        DecodedCache cache = decodedCache;
+        if (cache != null && decoder instanceof ReusableDecoder) {
+            return cache.get(storedDocument, (ReusableDecoder<T>) decoder);
+        }
+        return decoder.decode(values);
+    }
+
+    private <T, E extends Throwable> T record(Supplier<T, E> supplier,
+                                              Decoder<T> decoder,
+                                              Inverter<T> inverter,
+                                              KeysSupplier keyGenCashed) throws E {
         // execute
         // it could raise any exception so need to catch Throwable
         T res;
@@ -535,7 +725,7 @@ public class Base {
      * loads stub-file if required
      * NB: IOException exceptions are suppressed
      */
-    private void init() {
+    void init() {
         try {
             load();
         } catch (IOException e) {
@@ -544,66 +734,182 @@ public class Base {
     }
 
     /**
-     * cleans history, reloads stub-file
+     * loads stub-file if it isn't loaded yet
      * if any document is loaded it is marked as non-new
      *
      * @throws IOException due to file access error
      */
     private void load() throws IOException {
-        if (!isNew) {
+        if (!isNew && !unloaded) {
             return;
         }
-        synchronized (request2lock) {
-            if (isNew) {
+        synchronized (fileLock) {
+            if (unloaded) {
+                // documents recorded after unload() are written first, so they are read back with the others
+                flush();
                 try {
-                    Iterable<Document> load = loadStub(filePath);
-
-                    clear();
-
-                    load.forEach(d -> {
-                        documentList.add(d);
+                    read();
+                } catch (FileNotFoundException e) {
+                    log.warning(() -> String.format("stub file %s is lost after unload: %s", new File(filePath).getAbsolutePath(), e));
+                } finally {
+                    unloaded = false;
+                }
+                return;
+            }
+            // pending documents of a new stub override the file on flush, so there is nothing to load
+            if (isNew && pending.isEmpty() && deferred.isEmpty()) {
+                try {
+                    if (read()) {
+                        // published after all documents are added, so lock-free readers never see a partial stub
                         isNew = false;
-                        try {
-                            firstYamlDelimiter = StringUtil.nextYamlDelimiter(new File(filePath));
-                        } catch (IOException e) {
-                            log.severe(()-> String.format("failed to calculate yaml delimiter: %s", e.getMessage()));
-                        }
-                    });
+                    }
                 } catch (FileNotFoundException e) {
                     log.info(() -> String.format("stub file %s is not found: %s", new File(filePath).getAbsolutePath(), e));
+                } catch (IOException e) {
+                    if (new File(filePath).length() > 0) {
+                        // new documents are appended, so the next flush doesn't override the file
+                        isNew = false;
+                    }
+                    throw e;
+                } finally {
+                    loadAttempted = true;
                 }
             }
         }
     }
 
-    private static List<Document> loadStub(String filePath) throws IOException {
-        File file = new File(filePath);
-        try (InputStream inputStream = new FileInputStream(file);
-             InputStreamReader input = new InputStreamReader(inputStream, StandardCharsets.UTF_8)) {
-            LoaderOptions options = new LoaderOptions();
+    /**
+     * reads documents of the stub-file into a new list, with lazy load only the index is read.
+     * the list is published when it's complete, documents recorded without a lock meanwhile are added to it
+     *
+     * @return true if the stub-file has any document
+     * @throws IOException due to file access error
+     */
+    private boolean read() throws IOException {
+        DocumentListI loaded = new DocumentList();
+        long heap = 0;
+        if (lazyLoad && storage instanceof BinaryStubStorage) {
+            try {
+                BinaryStubStorage.Mapped mapped = ((BinaryStubStorage) storage).map();
+                publish(loaded, new MappedDocumentList(loaded, mapped), heap);
+                return mapped.size() > 0;
+            } catch (FileNotFoundException e) {
+                throw e;
+            } catch (IOException e) {
+                // e.g. a write was interrupted and the index is torn, complete records are still readable
+                log.warning(() -> String.format("stub file %s can't be mapped, it's loaded into memory: %s", filePath, e));
+            }
+        }
+        List<Document> load = storage.load();
+        for (Document document : load) {
+            loaded.add(document);
+            heap += document.heapEstimate();
+        }
+        publish(loaded, loaded, heap);
+        return !load.isEmpty();
+    }
 
-            Yaml yaml = new Yaml(new DocumentConstructor(options));
-            Iterable<Object> load = yaml.loadAll(input);
-            ArrayList<Document> res = new ArrayList<>();
-            load.forEach(d-> {
-                if (d instanceof Document) {
-                    res.add((Document) d);
-                }
-            });
-            return res;
+    private void publish(DocumentListI loaded, DocumentListI list, long heap) {
+        for (Document document : deferred) {
+            loaded.add(document);
+            heap += document.heapEstimate();
         }
+        documents = loaded;
+        documentList = list;
+        heapEstimate.set(heap);
     }
 
+    /**
+     * writes pending documents and releases documents kept in memory,
+     * unlike {@link #clear()} it keeps history and settings of the stub.
+     * the stub-file is loaded again on the next lookup
+     */
+    public void unload() {
+        synchronized (fileLock) {
+            flush();
+            if (isNew) {
+                // nothing is loaded
+                return;
+            }
+            unloaded = true;
+            // lock-free readers could still look up the former list, so it's replaced rather than cleared
+            documents = new DocumentList();
+            documentList = documents;
+            heapEstimate.set(0);
+            DecodedCache cache = decodedCache;
+            if (cache != null) {
+                cache.clear();
+            }
+        }
+    }
+
+    /**
+     * @return true if the next lookup loads the stub-file, so it could block on file access
+     */
+    boolean needsLoad() {
+        return isNew && !loadAttempted;
+    }
+
+    /**
+     * keeps a recorded document without writing it into the stub-file and without taking any lock.
+     * the document is written by the next {@link #flush()}, the caller is expected to run it when it's due
+     *
+     * @param document recorded document
+     * @return true if the flush is due according to write-behind settings
+     */
+    boolean recordDeferred(Document document) {
+        keep(document);
+        requestHistory.add(document);
+        deferred.add(document);
+        int size = deferred.size();
+        if (size >= flushSize) {
+            WriteBehind.pending(this, 0);
+            return true;
+        }
+        WriteBehind.pending(this, size == 1 ? flushMillis : 0);
+        return false;
+    }
+
+    private void keep(Document document) {
+        documentList.add(document);
+        heapEstimate.addAndGet(document.heapEstimate());
+    }
 
     /**
      * saves document into current stub file
      * append document at the end, if stub marks as new override existing file
+     * with write-behind the document is queued, see {@link #writeBehind(int, long)}
      *
      * @param document document to add
-     * @throws IOException
      */
     private void save(Document document) {
-        synchronized (request2lock) {
+        synchronized (fileLock) {
+            pending.add(document);
+            if (pending.size() >= flushSize) {
+                flush();
+            } else if (pending.size() == 1) {
+                scheduledFlush = WriteBehind.pending(this, flushMillis);
+            }
+        }
+    }
+
+    /**
+     * writes pending documents into the stub-file
+     * append documents at the end, if stub marks as new override existing file
+     */
+    public void flush() {
+        synchronized (fileLock) {
+            if (scheduledFlush != null) {
+                scheduledFlush.cancel(false);
+                scheduledFlush = null;
+            }
+            Document document;
+            while ((document = deferred.poll()) != null) {
+                pending.add(document);
+            }
+            if (pending.isEmpty()) {
+                return;
+            }
             File file = new File(filePath);
             File path = file.getParentFile();
 
@@ -613,30 +919,15 @@ public class Base {
                 log.info(() -> "dirs created");
             }
 
-            boolean doAppend = !isNew;
-            try (FileOutputStream out = new FileOutputStream(file, doAppend);
-                 OutputStreamWriter output = new OutputStreamWriter(out, StandardCharsets.UTF_8)) {
-
-                if (doAppend) {
-                    String delimited = "---\n";
-                    if (!firstYamlDelimiter.isEmpty()) {
-                        output.append(firstYamlDelimiter);
-                        firstYamlDelimiter = "";
-                    }
-                    output.append(delimited);
-
-                }
-                DumperOptions options = new DumperOptions();
-                options.setExplicitStart(true);
-                options.setExplicitEnd(true);
-
-                Yaml yaml = new Yaml(new DocumentRepresent(options));
-                yaml.dump(document, output);
-                output.flush();
+            try {
+                storage.save(pending, !isNew);
                 isNew = false;
             } catch (IOException e) {
-                log.severe(String.format("failed to record %s: %s", document.key_to_string(), e.getMessage()));
+                log.severe(String.format("failed to record %d documents, first %s: %s",
+                        pending.size(), pending.get(0).key_to_string(), e.getMessage()));
             }
+            pending.clear();
+            WriteBehind.flushed(this);
         }
     }
 
@@ -650,17 +941,35 @@ public class Base {
     }
 
     /**
+     * writes pending documents,
      * clears history and documents, sets isNew to true, which causes loading existing stub-file on the next request
      * doesn't touch appropriate file (a note: just remove a file manually if you do not need the data anymore)
      * doesn't clean properties
      */
     public void clear() {
+        flush();
         documentList.clear();
+        documentList = documents;
+        heapEstimate.set(0);
         requestHistory.clear();
+        DecodedCache cache = decodedCache;
+        if (cache != null) {
+            cache.clear();
+        }
         isNew = true;
+        loadAttempted = false;
+        unloaded = false;
     }
 
+    /**
+     * clears the stub, removes the stub-file and the folder with its side files
+     */
     public void purge() {
+        synchronized (fileLock) {
+            pending.clear();
+            deferred.clear();
+            WriteBehind.flushed(this);
+        }
         clear();
 
         try {
@@ -669,6 +978,15 @@ public class Base {
             log.finest("no file deleted on purge for: " + getFilePath());
         }
 
+        Path sideFolder = Paths.get(getFilePath() + SIDE_FOLDER_SUFFIX);
+        if (Files.isDirectory(sideFolder)) {
+            try (Stream<Path> files = Files.walk(sideFolder)) {
+                files.sorted(Comparator.reverseOrder())
+                        .forEach(path -> path.toFile().delete());
+            } catch (IOException e) {
+                log.warning(() -> String.format("side files of %s aren't removed: %s", getFilePath(), e));
+            }
+        }
     }
 
     /**
@@ -766,8 +1084,10 @@ public class Base {
      * @return amount of matched requests
      */
     public long times(final String... keys) {
-        return match(keys)
-                .count();
+        if (keys == null || keys.length == 0) {
+            return requestHistory.count();
+        }
+        return requestHistory.count(keys);
     }
 
     /**
@@ -781,8 +1101,7 @@ public class Base {
      * @return amount of matched requests
      */
     public long timesEx(final String... keys) {
-        return matchEx(keys)
-                .count();
+        return requestHistory.countEx(keys);
     }
 
     /**
@@ -797,14 +1116,34 @@ public class Base {
      * @return amount of matched requests
      */
     public long timesEx(final String[] keys, final String[] values) {
-        return matchEx(keys, values)
-                .count();
+        return requestHistory.countEx(keys, values);
     }
 
     public String getFilePath() {
         return filePath;
     }
 
+    public RequestMode getRequestMode() {
+        return requestMode;
+    }
+
+    /**
+     * approximate size of documents which the stub keeps in heap, bytes.
+     * documents read from memory-mapped stub-files on demand are not counted
+     *
+     * @return estimated size of documents
+     */
+    public long heapEstimate() {
+        return heapEstimate.get();
+    }
+
+    /**
+     * @return true if requests go to the source system without the stub
+     */
+    public boolean isPassThrough() {
+        return requestMode == rmPassThrough;
+    }
+
     /**
      * @return returns true if it is expected to find result in cache before hitting actual system
      */
@@ -814,14 +1153,14 @@ public class Base {
                 requestMode == rmFake;
     }
 
-    private boolean writeInCache() {
+    boolean writeInCache() {
         return requestMode == rmNew ||
                 requestMode == rmFake ||
                 requestMode == rmAll ||
                 (requestMode == rmTrack && documentListTrackIterator == null);
     }
 
-    private boolean isTrackCache() {
+    boolean isTrackCache() {
         return requestMode == rmTrack && documentListTrackIterator != null;
     }
 
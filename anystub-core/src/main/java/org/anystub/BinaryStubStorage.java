@@ -0,0 +1,485 @@
+package org.anystub;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.logging.Logger;
+
+/**
+ * keeps documents in a binary file.
+ * <p>
+ * the file is a header followed by a log of blocks, every block is [type:byte][length:int][payload]
+ * - record-block keeps a document: keys, values and exception as length-prefixed utf-8 strings
+ * - index-block keeps pairs [key-hash:long][offset of record-block:long] and ends with a footer
+ * [offset of previous index-block:long][offset of this block:long][mark:long]
+ * <p>
+ * appending a document writes its record-block and a small index-block, existing data isn't touched.
+ * index-blocks are chained from the end of the file, so a document is found by its key-hash
+ * without parsing other documents.
+ * if a write was interrupted the next append cuts off the torn tail and indexes complete records of it again
+ */
+public class BinaryStubStorage implements StubStorage {
+
+    public static final String EXTENSION = ".bin";
+
+    private static final Logger log = Logger.getLogger(BinaryStubStorage.class.getName());
+
+    private static final byte[] MAGIC = "ANYSTUB".getBytes(StandardCharsets.US_ASCII);
+    private static final byte VERSION = 1;
+    static final int HEADER_SIZE = MAGIC.length + 1;
+
+    static final byte RECORD = 1;
+    static final byte INDEX = 2;
+    static final int BLOCK_HEADER_SIZE = 1 + Integer.BYTES;
+
+    /**
+     * "ANYSTIDX" - marks the end of an index-block
+     */
+    private static final long INDEX_MARK = 0x414E595354494458L;
+    private static final int FOOTER_SIZE = Long.BYTES * 3;
+    private static final long NO_INDEX = -1L;
+
+    private final String filePath;
+
+    public BinaryStubStorage(String filePath) {
+        this.filePath = filePath;
+    }
+
+    @Override
+    public List<Document> load() throws IOException {
+        try (RandomAccessFile file = new RandomAccessFile(filePath, "r");
+             FileChannel channel = file.getChannel()) {
+            ByteBuffer buffer = ByteBuffer.allocate((int) channel.size());
+            while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+                // read the whole file
+            }
+            buffer.flip();
+            return readRecords(buffer);
+        }
+    }
+
+    /**
+     * looks for a document using the index of the file, other documents aren't decoded
+     *
+     * @param keys key of the document
+     * @return the first recorded document with the key
+     * @throws java.io.FileNotFoundException if the stub-file doesn't exist
+     * @throws IOException                   due to file access error
+     */
+    public Optional<Document> find(List<String> keys) throws IOException {
+        return map().find(keys);
+    }
+
+    /**
+     * maps the stub-file into memory and reads its index.
+     * documents are decoded only when they are requested
+     *
+     * @return mapped stub-file
+     * @throws java.io.FileNotFoundException if the stub-file doesn't exist
+     * @throws IOException                   if the file is corrupted or due to file access error
+     */
+    Mapped map() throws IOException {
+        try (RandomAccessFile file = new RandomAccessFile(filePath, "r");
+             FileChannel channel = file.getChannel()) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("stub-file is too large to be mapped: " + filePath);
+            }
+            return new Mapped(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    @Override
+    public void save(List<Document> documents, boolean append) throws IOException {
+        try (RandomAccessFile file = new RandomAccessFile(filePath, "rw");
+             FileChannel channel = file.getChannel()) {
+            if (!append || channel.size() < HEADER_SIZE) {
+                channel.truncate(0);
+                writeRecords(channel, documents, writeFully(channel, header(), 0), NO_INDEX, Collections.emptyList());
+                return;
+            }
+            checkHeader(channel);
+            long size = channel.size();
+            if (size >= HEADER_SIZE + BLOCK_HEADER_SIZE + FOOTER_SIZE) {
+                ByteBuffer footer = readFully(channel, size - Long.BYTES * 2, Long.BYTES * 2);
+                long offset = footer.getLong();
+                if (footer.getLong() == INDEX_MARK && offset >= HEADER_SIZE && offset < size) {
+                    writeRecords(channel, documents, size, offset, Collections.emptyList());
+                    return;
+                }
+            }
+            recover(channel, documents);
+        }
+    }
+
+    /**
+     * appends documents to a stub-file which isn't finished with an index.
+     * the file is scanned from the start, the tail after the last complete block is cut off,
+     * complete records after the last index-block are indexed with the new documents
+     */
+    private void recover(FileChannel channel, List<Document> documents) throws IOException {
+        ByteBuffer buffer = readFully(channel, 0, (int) channel.size());
+        buffer.position(HEADER_SIZE);
+        long prevIndex = NO_INDEX;
+        List<long[]> unindexed = new ArrayList<>();
+        int end = HEADER_SIZE;
+        while (buffer.remaining() >= BLOCK_HEADER_SIZE) {
+            int start = buffer.position();
+            byte type = buffer.get();
+            int length = buffer.getInt();
+            if (length < 0 || length > buffer.remaining()) {
+                break;
+            }
+            ByteBuffer payload = buffer.slice();
+            payload.limit(length);
+            if (type == RECORD) {
+                try {
+                    unindexed.add(new long[]{keyHash(strings(payload)), start});
+                } catch (BufferUnderflowException | IllegalArgumentException e) {
+                    break;
+                }
+            } else if (type == INDEX) {
+                if (length < FOOTER_SIZE
+                        || payload.getLong(length - Long.BYTES * 2) != start
+                        || payload.getLong(length - Long.BYTES) != INDEX_MARK) {
+                    break;
+                }
+                prevIndex = start;
+                unindexed.clear();
+            } else {
+                break;
+            }
+            end = start + BLOCK_HEADER_SIZE + length;
+            buffer.position(end);
+        }
+        int cut = end;
+        int recovered = unindexed.size();
+        log.warning(() -> String.format("stub-file %s isn't finished with an index, it's cut off in %d, %d records are indexed again",
+                filePath, cut, recovered));
+        channel.truncate(end);
+        writeRecords(channel, documents, end, prevIndex, unindexed);
+    }
+
+    @Override
+    public void write(List<Document> documents) throws IOException {
+        try (RandomAccessFile file = new RandomAccessFile(filePath, "rw");
+             FileChannel channel = file.getChannel()) {
+            channel.truncate(0);
+            writeRecords(channel, documents, writeFully(channel, header(), 0), NO_INDEX, Collections.emptyList());
+        }
+    }
+
+    /**
+     * @param recovered entries of records which are already written but not indexed yet
+     */
+    private static void writeRecords(FileChannel channel, List<Document> documents, long offset, long prevIndex,
+                                     List<long[]> recovered) throws IOException {
+        int count = documents.size();
+        int skip = recovered.size();
+        long[][] entries = new long[skip + count][];
+        recovered.toArray(entries);
+        ByteBuffer[] blocks = new ByteBuffer[count + 1];
+        long position = offset;
+        for (int i = 0; i < count; i++) {
+            Document document = documents.get(i);
+            entries[skip + i] = new long[]{keyHash(document.getKey()), position};
+            blocks[i] = record(document);
+            position += blocks[i].limit();
+        }
+        blocks[count] = index(entries, prevIndex, position);
+
+        channel.position(offset);
+        while (blocks[count].hasRemaining()) {
+            channel.write(blocks);
+        }
+    }
+
+    /**
+     * calculates 64-bit FNV-1a hash of a key
+     *
+     * @param keys key of a document
+     * @return hash of the key
+     */
+    public static long keyHash(List<String> keys) {
+        long hash = 0xcbf29ce484222325L;
+        for (String key : keys) {
+            if (key == null) {
+                hash = (hash ^ 0xff) * 0x100000001b3L;
+            } else {
+                for (int i = 0; i < key.length(); i++) {
+                    char c = key.charAt(i);
+                    hash = (hash ^ (c & 0xff)) * 0x100000001b3L;
+                    hash = (hash ^ (c >>> 8)) * 0x100000001b3L;
+                }
+            }
+            hash = (hash ^ 0xfe) * 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    private static List<Document> readRecords(ByteBuffer buffer) throws IOException {
+        checkHeader(buffer);
+        List<Document> res = new ArrayList<>();
+        while (buffer.remaining() >= BLOCK_HEADER_SIZE) {
+            int start = buffer.position();
+            byte type = buffer.get();
+            int length = buffer.getInt();
+            if (length < 0 || length > buffer.remaining()) {
+                int pos = start;
+                log.warning(() -> String.format("truncated block in %d, the rest of the stub is skipped", pos));
+                return res;
+            }
+            ByteBuffer payload = buffer.slice();
+            payload.limit(length);
+            buffer.position(buffer.position() + length);
+            if (type == RECORD) {
+                try {
+                    res.add(decode(payload));
+                } catch (BufferUnderflowException e) {
+                    throw new IOException("corrupted record in " + start, e);
+                }
+            }
+        }
+        return res;
+    }
+
+    private static long checkFooter(long offset, long mark, long size) throws IOException {
+        if (mark != INDEX_MARK || offset < HEADER_SIZE || offset >= size) {
+            throw new IOException("stub-file isn't finished with an index");
+        }
+        return offset;
+    }
+
+    private static void checkHeader(FileChannel channel) throws IOException {
+        if (channel.size() < HEADER_SIZE) {
+            throw new IOException("not a binary stub-file");
+        }
+        checkHeader(readFully(channel, 0, HEADER_SIZE));
+    }
+
+    private static void checkHeader(ByteBuffer buffer) throws IOException {
+        if (buffer.remaining() < HEADER_SIZE) {
+            throw new IOException("not a binary stub-file");
+        }
+        byte[] magic = new byte[MAGIC.length];
+        buffer.get(magic);
+        if (!Arrays.equals(magic, MAGIC)) {
+            throw new IOException("not a binary stub-file");
+        }
+        byte version = buffer.get();
+        if (version != VERSION) {
+            throw new IOException("unsupported version of binary stub-file: " + version);
+        }
+    }
+
+    private static ByteBuffer header() {
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE);
+        buffer.put(MAGIC).put(VERSION);
+        buffer.flip();
+        return buffer;
+    }
+
+    private static ByteBuffer record(Document document) {
+        List<byte[]> keys = utf8(document.getKey());
+        List<byte[]> values = utf8(document.rawValues());
+        List<byte[]> exception = new ArrayList<>();
+        document.getException().forEach(s -> exception.add(s == null ? null : s.getBytes(StandardCharsets.UTF_8)));
+
+        int length = size(keys) + size(values) + size(exception);
+        ByteBuffer buffer = ByteBuffer.allocate(BLOCK_HEADER_SIZE + length);
+        buffer.put(RECORD).putInt(length);
+        put(buffer, keys);
+        put(buffer, values);
+        put(buffer, exception);
+        buffer.flip();
+        return buffer;
+    }
+
+    private static ByteBuffer index(long[][] entries, long prevIndex, long offset) {
+        int length = Integer.BYTES + entries.length * Long.BYTES * 2 + FOOTER_SIZE;
+        ByteBuffer buffer = ByteBuffer.allocate(BLOCK_HEADER_SIZE + length);
+        buffer.put(INDEX).putInt(length);
+        buffer.putInt(entries.length);
+        for (long[] entry : entries) {
+            buffer.putLong(entry[0]).putLong(entry[1]);
+        }
+        buffer.putLong(prevIndex).putLong(offset).putLong(INDEX_MARK);
+        buffer.flip();
+        return buffer;
+    }
+
+    private static Document decode(ByteBuffer payload) {
+        List<String> keys = strings(payload);
+        List<String> values = strings(payload);
+        List<String> exception = strings(payload);
+        return new Document(keys, values, exception);
+    }
+
+    private static List<String> strings(ByteBuffer buffer) {
+        int count = buffer.getInt();
+        if (count == 0) {
+            return Collections.emptyList();
+        }
+        List<String> res = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int length = buffer.getInt();
+            if (length < 0) {
+                res.add(null);
+            } else {
+                byte[] bytes = new byte[length];
+                buffer.get(bytes);
+                res.add(new String(bytes, StandardCharsets.UTF_8));
+            }
+        }
+        return res;
+    }
+
+    private static List<byte[]> utf8(List<String> strings) {
+        List<byte[]> res = new ArrayList<>(strings.size());
+        strings.forEach(s -> res.add(s == null ? null : s.getBytes(StandardCharsets.UTF_8)));
+        return res;
+    }
+
+    private static int size(List<byte[]> strings) {
+        int res = Integer.BYTES;
+        for (byte[] s : strings) {
+            res += Integer.BYTES + (s == null ? 0 : s.length);
+        }
+        return res;
+    }
+
+    private static void put(ByteBuffer buffer, List<byte[]> strings) {
+        buffer.putInt(strings.size());
+        for (byte[] s : strings) {
+            if (s == null) {
+                buffer.putInt(-1);
+            } else {
+                buffer.putInt(s.length).put(s);
+            }
+        }
+    }
+
+    /**
+     * read-only view of a memory-mapped stub-file.
+     * keeps only key-hash to offset index in heap
+     */
+    static class Mapped {
+        private static final int[] NO_OFFSETS = new int[0];
+
+        private final ByteBuffer buffer;
+        private final Map<Long, int[]> index;
+        private final int size;
+
+        private Mapped(ByteBuffer buffer) throws IOException {
+            this.buffer = buffer;
+            checkHeader(buffer.duplicate());
+            Map<Long, int[]> entries = new HashMap<>();
+            int count = 0;
+            long offset = lastIndexOffset(buffer);
+            while (offset != NO_INDEX) {
+                ByteBuffer block = block(buffer, (int) offset, INDEX);
+                int n = block.getInt();
+                for (int i = 0; i < n; i++) {
+                    long hash = block.getLong();
+                    int record = (int) block.getLong();
+                    entries.merge(hash, new int[]{record}, Mapped::concat);
+                }
+                count += n;
+                long prev = block.getLong();
+                if (prev >= offset) {
+                    throw new IOException("corrupted index chain in " + offset);
+                }
+                offset = prev;
+            }
+            this.index = entries;
+            this.size = count;
+        }
+
+        /**
+         * @return number of indexed documents
+         */
+        int size() {
+            return size;
+        }
+
+        /**
+         * decodes the first recorded document with given key
+         *
+         * @param keys key of the document
+         * @return found document
+         * @throws IOException if the record is corrupted
+         */
+        Optional<Document> find(List<String> keys) throws IOException {
+            for (int offset : index.getOrDefault(keyHash(keys), NO_OFFSETS)) {
+                Document document;
+                try {
+                    document = decode(block(buffer, offset, RECORD));
+                } catch (BufferUnderflowException e) {
+                    throw new IOException("corrupted record in " + offset, e);
+                }
+                if (document.getKey().equals(keys)) {
+                    return Optional.of(document);
+                }
+            }
+            return Optional.empty();
+        }
+
+        private static int[] concat(int[] one, int[] two) {
+            int[] res = Arrays.copyOf(one, one.length + two.length);
+            System.arraycopy(two, 0, res, one.length, two.length);
+            Arrays.sort(res);
+            return res;
+        }
+
+        private static ByteBuffer block(ByteBuffer buffer, int offset, byte expectedType) throws IOException {
+            if (offset < HEADER_SIZE || offset > buffer.limit() - BLOCK_HEADER_SIZE) {
+                throw new IOException("unexpected block in " + offset);
+            }
+            byte type = buffer.get(offset);
+            int length = buffer.getInt(offset + 1);
+            int start = offset + BLOCK_HEADER_SIZE;
+            if (type != expectedType || length < 0 || length > buffer.limit() - start) {
+                throw new IOException("unexpected block in " + offset);
+            }
+            ByteBuffer res = buffer.duplicate();
+            res.position(start).limit(start + length);
+            return res.slice();
+        }
+
+        private static long lastIndexOffset(ByteBuffer buffer) throws IOException {
+            int size = buffer.limit();
+            if (size < HEADER_SIZE + BLOCK_HEADER_SIZE + FOOTER_SIZE) {
+                return NO_INDEX;
+            }
+            return checkFooter(buffer.getLong(size - Long.BYTES * 2), buffer.getLong(size - Long.BYTES), size);
+        }
+    }
+
+    private static ByteBuffer readFully(FileChannel channel, long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new EOFException("unexpected end of stub-file in " + position);
+            }
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    private static long writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+        return position;
+    }
+}
@@ -18,6 +18,8 @@ import java.util.logging.Logger;
 public class ConfigFileUtil {
 
     private static final ConcurrentHashMap<String, TestSettings> configs = new ConcurrentHashMap<>();
+    public static final int DEFAULT_HISTORY_SIZE = 1000;
+    public static final int DEFAULT_MEMO_SIZE = 256;
 
 
     private ConfigFileUtil() {
@@ -68,6 +70,17 @@ public class ConfigFileUtil {
                                     new String[]{"POST", "PUT", "DELETE"} :
                                     v.get(), new String[0]))
                     .setTestFilePrefix(ifNull(load.testFilePrefix, v -> v, true))
+                    .setLazyLoad(ifNull(load.lazyLoad, v -> v, false))
+                    .setFillStackTrace(ifNull(load.fillStackTrace, v -> v, true))
+                    .setFlushSize(ifNull(load.flushSize, v -> v, 1))
+                    .setFlushMillis(ifNull(load.flushMillis, v -> v, 0L))
+                    .setHistoryMode(ifNull(load.history, v -> v, HistoryMode.hmFull))
+                    .setHistorySize(ifNull(load.historySize, v -> v, DEFAULT_HISTORY_SIZE))
+                    .setPartitionHistory(ifNull(load.partitionHistory, v -> v, false))
+                    .setMemoize(ifNull(load.memoize, v -> v, false))
+                    .setMemoizeSize(ifNull(load.memoizeSize, v -> v, DEFAULT_MEMO_SIZE))
+                    .setMaxStubs(ifNull(load.maxStubs, v -> v, 0))
+                    .setStubsMemory(ifNull(load.stubsMemory, v -> v, 0L))
                     .build();
         });
     }
@@ -136,6 +149,61 @@ public class ConfigFileUtil {
          */
         public Boolean testFilePrefix;
 
+        /**
+         * whatever memory-map binary stub-files and decode documents on demand
+         */
+        public Boolean lazyLoad;
+
+        /**
+         * whatever fill stack trace of replayed exceptions of unknown classes
+         */
+        public Boolean fillStackTrace;
+
+        /**
+         * number of recorded documents written into a stub-file by one batch
+         */
+        public Integer flushSize;
+
+        /**
+         * max delay in milliseconds of writing a recorded document
+         */
+        public Long flushMillis;
+
+        /**
+         * how stubs keep requests
+         */
+        public HistoryMode history;
+
+        /**
+         * max number of requests kept in hmRing mode
+         */
+        public Integer historySize;
+
+        /**
+         * whatever keep requests of concurrent tests separately
+         */
+        public Boolean partitionHistory;
+
+        /**
+         * whatever reuse decoded responses of documents
+         */
+        public Boolean memoize;
+
+        /**
+         * max number of decoded responses kept by a stub
+         */
+        public Integer memoizeSize;
+
+        /**
+         * max number of stubs with loaded documents
+         */
+        public Integer maxStubs;
+
+        /**
+         * heap budget of documents loaded by stubs of the manager in bytes
+         */
+        public Long stubsMemory;
+
         /**
          * reserved for server storage-mode
          */
@@ -153,6 +221,17 @@ public class ConfigFileUtil {
                     ", requestMask=" + requestMask +
                     ", bodyMethods=" + bodyMethods +
                     ", testFilePrefix=" + testFilePrefix +
+                    ", lazyLoad=" + lazyLoad +
+                    ", fillStackTrace=" + fillStackTrace +
+                    ", flushSize=" + flushSize +
+                    ", flushMillis=" + flushMillis +
+                    ", history=" + history +
+                    ", historySize=" + historySize +
+                    ", partitionHistory=" + partitionHistory +
+                    ", memoize=" + memoize +
+                    ", memoizeSize=" + memoizeSize +
+                    ", maxStubs=" + maxStubs +
+                    ", stubsMemory=" + stubsMemory +
                     '}';
         }
     }
@@ -0,0 +1,88 @@
+package org.anystub;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * keeps decoded documents of a stub, see {@link Base#memoize(int)}.
+ * entries are keyed by a document and a decoder, the least recently used entry is evicted first
+ */
+class DecodedCache {
+
+    private final Map<Key, Object> entries;
+
+    DecodedCache(int maxSize) {
+        entries = new LinkedHashMap<Key, Object>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Object> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    /**
+     * @param document replayed document
+     * @param decoder  decoder of the document
+     * @return decoded object given by {@link ReusableDecoder#reuse(Object)}
+     */
+    @SuppressWarnings("unchecked")
+    <T> T get(Document document, ReusableDecoder<T> decoder) {
+        Key key = new Key(document, decoder.memoKey());
+        Object decoded;
+        synchronized (this) {
+            decoded = entries.get(key);
+        }
+        if (decoded == null) {
+            // concurrent replays could decode the document twice, the last one is kept
+            decoded = decoder.decode(document.getVals());
+            if (decoded == null) {
+                return null;
+            }
+            synchronized (this) {
+                entries.put(key, decoded);
+            }
+        }
+        return decoder.reuse((T) decoded);
+    }
+
+    synchronized void clear() {
+        entries.clear();
+    }
+
+    synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * documents are compared by identity
+     */
+    private static class Key {
+        private final Document document;
+        private final Object decoder;
+        private final int hash;
+
+        Key(Document document, Object decoder) {
+            this.document = document;
+            this.decoder = decoder;
+            this.hash = 31 * System.identityHashCode(document) + decoder.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) o;
+            return document == key.document && Objects.equals(decoder, key.decoder);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
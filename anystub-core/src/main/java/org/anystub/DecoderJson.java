@@ -1,15 +1,18 @@
 package org.anystub;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectReader;
 
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
 
 public class DecoderJson<R extends Object> implements DecoderSimple<R>{
     private final Class<R> responseClass;
+    private final ObjectReader reader;
 
     public DecoderJson(Class<R> responseClass) {
         this.responseClass = responseClass;
+        this.reader = ObjectMapperFactory.get().readerFor(responseClass);
     }
 
     @Override
@@ -26,7 +29,7 @@ public class DecoderJson<R extends Object> implements DecoderSimple<R>{
         }
 
         try {
-            r = ObjectMapperFactory.get().readValue(values, responseClass);
+            r = reader.readValue(values);
         } catch (JsonProcessingException e) {
             throw new TypeNotPresentException(responseClass.getName(), e);
         }
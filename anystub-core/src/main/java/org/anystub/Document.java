@@ -1,14 +1,12 @@
 package org.anystub;
 
-import java.lang.reflect.Constructor;
-import java.lang.reflect.InvocationTargetException;
 import java.util.AbstractList;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.TreeMap;
-import java.util.logging.Logger;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Pattern;
 
 import static java.util.Arrays.asList;
@@ -18,10 +16,13 @@ import static java.util.Arrays.asList;
  */
 public class Document {
 
-    private static final Logger logger = Logger.getLogger(Document.class.getName());
+    private static final int MAX_PATTERNS = 1024;
+    private static final Map<String, Pattern> PATTERNS = new ConcurrentHashMap<>();
     private final List<String> keys = new ArrayList<>();
     private final List<String> exception = new ArrayList<>();
     private final List<String> values = new ArrayList<>();
+    // keys don't change after a document is built
+    private volatile DocumentKey key = null;
 
     public Document() {
         // an explicit declaration. to be consistent
@@ -57,8 +58,29 @@ public class Document {
         this.values.addAll(asList(values));
     }
 
+    /**
+     * restores a document as it was stored
+     */
+    Document(List<String> keys, List<String> values, List<String> exception) {
+        this.keys.addAll(keys);
+        this.values.addAll(values);
+        this.exception.addAll(exception);
+    }
+
     public List<String> getKey() {
-        return new DocumentKey(this.keys);
+        return key();
+    }
+
+    /**
+     * @return key of the document, it's built once
+     */
+    DocumentKey key() {
+        DocumentKey documentKey = key;
+        if (documentKey == null) {
+            documentKey = new DocumentKey(this.keys);
+            key = documentKey;
+        }
+        return documentKey;
     }
 
     /**
@@ -81,6 +103,15 @@ public class Document {
         return exception;
     }
 
+    /**
+     * for internal use
+     *
+     * @return stored values as is
+     */
+    List<String> rawValues() {
+        return values;
+    }
+
     private Document setNull() {
         this.values.clear();
         return this;
@@ -108,9 +139,18 @@ public class Document {
      * @throws E
      */
     public <E extends Throwable> Iterable<String> getVals() throws E {
-        return getValues();
+        return getValues(true);
+    }
+
+    /**
+     * @param fillStackTrace if false a recorded exception of unknown class is thrown without stack trace,
+     *                       see {@link Base#fillStackTrace(boolean)}
+     */
+    <E extends Throwable> Iterable<String> getVals(boolean fillStackTrace) throws E {
+        return getValues(fillStackTrace);
     }
-    private  <E extends Throwable> List<String> getValues() throws E {
+
+    private  <E extends Throwable> List<String> getValues(boolean fillStackTrace) throws E {
         if (exception.isEmpty()) {
             if (isNullValue()) {
                 return null;
@@ -118,18 +158,23 @@ public class Document {
             return values;
         }
 
-        try {
-            Class<?> aClass = Class.forName(exception.get(0));
+        throw (E) ExceptionFactory.create(exception.get(0), exception.get(1), fillStackTrace);
+    }
 
-            Constructor<?> constructor = aClass.getConstructor(String.class);
-            Object o = constructor.newInstance(exception.get(1));
-            throw (E) o;
-        } catch (ClassNotFoundException | NoSuchMethodException | IllegalAccessException | InstantiationException | InvocationTargetException e) {
-            String msg = String.format("exception class %s not found, RuntimeException is thrown", exception.get(0));
-            logger.warning(() -> msg);
-            throw new RuntimeException(exception.get(1), e);
-        }
+    /**
+     * @return approximate heap taken by the document, bytes
+     */
+    long heapEstimate() {
+        return 96 + heapEstimate(keys) + heapEstimate(values) + heapEstimate(exception);
+    }
 
+    private static long heapEstimate(List<String> strings) {
+        // a reference, a string header with an array header, 2 bytes per char in the worst case
+        long size = 0;
+        for (String s : strings) {
+            size += s == null ? 8 : 48 + 2L * s.length();
+        }
+        return size;
     }
 
     /**
@@ -142,7 +187,7 @@ public class Document {
                 pos < -this.values.size()) {
             return "";
         }
-        List<String> strings = getValues();
+        List<String> strings = getValues(true);
         if (strings == null) {
             return "";
         }
@@ -153,7 +198,7 @@ public class Document {
     }
 
     public boolean keyEqual_to(String... keys) {
-        return this.keys.equals(asList(keys));
+        return key().equals(DocumentKey.wrap(keys));
     }
 
     /**
@@ -214,7 +259,7 @@ public class Document {
             if (keys[i] == null) {
                 continue;
             }
-            if (!Pattern.matches(keys[i], this.keys.get(i))) {
+            if (!pattern(keys[i]).matcher(this.keys.get(i)).matches()) {
                 return false;
             }
         }
@@ -244,13 +289,29 @@ public class Document {
             if (values[i] == null) {
                 continue;
             }
-            if (!Pattern.matches(values[i], this.values.get(i))) {
+            if (!pattern(values[i]).matcher(this.values.get(i)).matches()) {
                 return false;
             }
         }
         return true;
     }
 
+    /**
+     * @param regex regular expression
+     * @return compiled expression, expressions are compiled once
+     */
+    private static Pattern pattern(String regex) {
+        Pattern pattern = PATTERNS.get(regex);
+        if (pattern == null) {
+            if (PATTERNS.size() >= MAX_PATTERNS) {
+                PATTERNS.clear();
+            }
+            pattern = Pattern.compile(regex);
+            PATTERNS.put(regex, pattern);
+        }
+        return pattern;
+    }
+
     public void assert_to(String... keys) {
         if (!match_to(keys)) {
             fail(keys);
@@ -460,22 +521,70 @@ public class Document {
 
     }
 
+    /**
+     * immutable key of a document.
+     * the hash is calculated once, keys with different hashes are compared without checking strings
+     */
     public static class DocumentKey extends AbstractList<String> {
 
-        private final List<String> list;
+        private final String[] keys;
+        private final int hash;
 
         public DocumentKey(List<String> list) {
-            this.list = list;
+            this(list.toArray(new String[0]));
+        }
+
+        private DocumentKey(String[] keys) {
+            this.keys = keys;
+            int h = 1;
+            for (String key : keys) {
+                h = 31 * h + (key == null ? 0 : key.hashCode());
+            }
+            this.hash = h;
+        }
+
+        /**
+         * @param keys keys of a document
+         * @return key with a copy of the keys
+         */
+        public static DocumentKey of(String... keys) {
+            return new DocumentKey(keys.clone());
+        }
+
+        /**
+         * builds a key for lookup only, the array must not be changed while the key is used
+         */
+        static DocumentKey wrap(String[] keys) {
+            return new DocumentKey(keys);
         }
 
         @Override
         public String get(int index) {
-            return list.get(index);
+            return keys[index];
         }
 
         @Override
         public int size() {
-            return list.size();
+            return keys.length;
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof DocumentKey)) {
+                return super.equals(o);
+            }
+            DocumentKey other = (DocumentKey) o;
+            return hash == other.hash
+                    && keys.length == other.keys.length
+                    && Arrays.equals(keys, other.keys);
         }
     }
 
@@ -1,22 +1,15 @@
 package org.anystub;
 
-import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
 
-import static java.util.Arrays.asList;
-
 public class DocumentList implements DocumentListI {
 
-    private final ConcurrentHashMap<List<String>, Document> index = new ConcurrentHashMap<>();
-
-    private final Object request2lock = new Object();
+    private final ConcurrentHashMap<Document.DocumentKey, Document> index = new ConcurrentHashMap<>();
 
     @Override
     public void add(Document document) {
-        synchronized (request2lock) {
-            index.putIfAbsent(document.getKey(), document);
-        }
+        index.putIfAbsent(document.key(), document);
     }
 
     @Override
@@ -26,7 +19,7 @@ public class DocumentList implements DocumentListI {
 
     @Override
     public Optional<Document> getDocument(String[] keys) {
-        Document document = index.get(asList(keys));
+        Document document = index.get(Document.DocumentKey.wrap(keys));
         return document != null ? Optional.of(document) : Optional.empty();
     }
 
@@ -0,0 +1,188 @@
+package org.anystub;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Date;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * encodes keys of requests into strings, see {@link StringUtil#toArray(Object...)}.
+ * produces the same strings as {@link ObjectMapperFactory} does.
+ * strings, numbers, enums and dates are encoded directly,
+ * other types are encoded by a json-writer prepared once for the class
+ * <p>
+ * the encoder for a class is chosen on the first key of the class,
+ * settings of the object mapper changed after that are not taken into account
+ */
+public final class EncoderKey {
+
+    private static final String ENCODING_FAILED = "**encoding failed**";
+    private static final Map<Class<?>, EncoderSimple<Object>> ENCODERS = new ConcurrentHashMap<>();
+
+    private EncoderKey() {
+    }
+
+    /**
+     * @param key key of a request
+     * @return encoded key, null for null
+     */
+    public static String encode(Object key) {
+        if (key == null) {
+            return null;
+        }
+        if (key.getClass() == String.class) {
+            return (String) key;
+        }
+        return ENCODERS.computeIfAbsent(key.getClass(), aClass -> encoderFor(aClass, key))
+                .encode(key);
+    }
+
+    /**
+     * sets an encoder for keys of the class, it replaces the json encoding
+     *
+     * @param aClass  class of keys
+     * @param encoder encoder of the keys
+     * @param <T>     type of keys
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> void register(Class<T> aClass, EncoderSimple<? super T> encoder) {
+        ENCODERS.put(aClass, (EncoderSimple<Object>) encoder);
+    }
+
+    private static EncoderSimple<Object> encoderFor(Class<?> aClass, Object sample) {
+        ObjectMapper mapper = ObjectMapperFactory.get();
+        if (Enum.class.isAssignableFrom(aClass)) {
+            return constants(aClass, mapper);
+        }
+
+        EncoderSimple<Object> json = json(mapper.writerFor(aClass));
+
+        EncoderSimple<Object> direct = direct(aClass, mapper);
+        if (direct == null) {
+            return json;
+        }
+        // a module or a class annotation could change the format
+        return direct.encode(sample).equals(json.encode(sample)) ? direct : json;
+    }
+
+    private static EncoderSimple<Object> direct(Class<?> aClass, ObjectMapper mapper) {
+        boolean numbersAsStrings = mapper.getFactory().isEnabled(JsonGenerator.Feature.WRITE_NUMBERS_AS_STRINGS);
+        boolean datesAsTimestamps = mapper.isEnabled(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        boolean nanos = mapper.isEnabled(SerializationFeature.WRITE_DATE_TIMESTAMPS_AS_NANOSECONDS);
+
+        if (aClass == Boolean.class) {
+            return String::valueOf;
+        }
+        if (aClass == UUID.class) {
+            return key -> '"' + key.toString() + '"';
+        }
+        if (numbersAsStrings) {
+            return null;
+        }
+        if (aClass == Integer.class || aClass == Long.class || aClass == Short.class || aClass == Byte.class
+                || aClass == BigInteger.class) {
+            return String::valueOf;
+        }
+        if (aClass == BigDecimal.class && !mapper.getFactory().isEnabled(JsonGenerator.Feature.WRITE_BIGDECIMAL_AS_PLAIN)) {
+            return String::valueOf;
+        }
+        if (aClass == Double.class) {
+            return key -> Double.isFinite((Double) key) ? key.toString() : jsonString(key);
+        }
+        if (aClass == Float.class) {
+            return key -> Float.isFinite((Float) key) ? key.toString() : jsonString(key);
+        }
+        if (!datesAsTimestamps) {
+            return null;
+        }
+        if (aClass == Date.class) {
+            return key -> String.valueOf(((Date) key).getTime());
+        }
+        if (aClass == LocalDate.class) {
+            return key -> localDate(new StringBuilder(16).append('['), (LocalDate) key)
+                    .append(']')
+                    .toString();
+        }
+        if (!nanos) {
+            return null;
+        }
+        if (aClass == LocalTime.class) {
+            return key -> localTime(new StringBuilder(24).append('['), (LocalTime) key)
+                    .append(']')
+                    .toString();
+        }
+        if (aClass == LocalDateTime.class) {
+            return key -> {
+                LocalDateTime dateTime = (LocalDateTime) key;
+                StringBuilder sb = localDate(new StringBuilder(40).append('['), dateTime.toLocalDate())
+                        .append(',');
+                return localTime(sb, dateTime.toLocalTime())
+                        .append(']')
+                        .toString();
+            };
+        }
+        return null;
+    }
+
+    private static StringBuilder localDate(StringBuilder sb, LocalDate date) {
+        return sb.append(date.getYear())
+                .append(',').append(date.getMonthValue())
+                .append(',').append(date.getDayOfMonth());
+    }
+
+    private static StringBuilder localTime(StringBuilder sb, LocalTime time) {
+        sb.append(time.getHour())
+                .append(',').append(time.getMinute());
+        if (time.getSecond() > 0 || time.getNano() > 0) {
+            sb.append(',').append(time.getSecond());
+            if (time.getNano() > 0) {
+                sb.append(',').append(time.getNano());
+            }
+        }
+        return sb;
+    }
+
+    /**
+     * encodes each constant of the enum once
+     */
+    private static EncoderSimple<Object> constants(Class<?> aClass, ObjectMapper mapper) {
+        // constants with a body are subclasses of the enum
+        Class<?> enumClass = aClass.isEnum() ? aClass : aClass.getSuperclass();
+        EncoderSimple<Object> json = json(mapper.writerFor(enumClass));
+        Object[] constants = enumClass.getEnumConstants();
+        String[] encoded = new String[constants.length];
+        for (int i = 0; i < constants.length; i++) {
+            encoded[i] = json.encode(constants[i]);
+        }
+        return key -> encoded[((Enum<?>) key).ordinal()];
+    }
+
+    private static EncoderSimple<Object> json(ObjectWriter writer) {
+        return key -> {
+            try {
+                return writer.writeValueAsString(key);
+            } catch (JsonProcessingException e) {
+                return ENCODING_FAILED;
+            }
+        };
+    }
+
+    private static String jsonString(Object key) {
+        try {
+            return ObjectMapperFactory.get().writeValueAsString(key);
+        } catch (JsonProcessingException e) {
+            return ENCODING_FAILED;
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package org.anystub;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Logger;
+
+/**
+ * rebuilds recorded exceptions.
+ * constructors are looked up once per class, unknown classes are cached as well
+ * and replayed as RuntimeException
+ */
+final class ExceptionFactory {
+
+    private static final Logger logger = Logger.getLogger(ExceptionFactory.class.getName());
+    private static final MethodType CONSTRUCTOR = MethodType.methodType(void.class, String.class);
+    private static final Map<String, ExceptionFactory> FACTORIES = new ConcurrentHashMap<>();
+
+    // null if the class can't be instantiated
+    private final MethodHandle constructor;
+    private final ReflectiveOperationException failure;
+
+    private ExceptionFactory(MethodHandle constructor, ReflectiveOperationException failure) {
+        this.constructor = constructor;
+        this.failure = failure;
+    }
+
+    /**
+     * @param className recorded class of the exception
+     * @param message   recorded message of the exception
+     * @param fillStackTrace if false the RuntimeException replacing an unknown class has no stack trace,
+     *                       recorded classes are built by their constructor, so they fill their stack trace
+     * @return the exception to throw
+     */
+    static Throwable create(String className, String message, boolean fillStackTrace) {
+        return FACTORIES.computeIfAbsent(className, ExceptionFactory::lookup)
+                .newInstance(message, fillStackTrace);
+    }
+
+    private static ExceptionFactory lookup(String className) {
+        try {
+            Class<?> aClass = Class.forName(className);
+            if (!Throwable.class.isAssignableFrom(aClass)) {
+                throw new ClassNotFoundException(className + " is not a Throwable");
+            }
+            MethodHandle constructor = MethodHandles.publicLookup()
+                    .findConstructor(aClass, CONSTRUCTOR)
+                    .asType(MethodType.methodType(Throwable.class, String.class));
+            return new ExceptionFactory(constructor, null);
+        } catch (ClassNotFoundException | NoSuchMethodException | IllegalAccessException e) {
+            logger.warning(() -> String.format("exception class %s not found, RuntimeException is thrown", className));
+            return new ExceptionFactory(null, e);
+        }
+    }
+
+    private Throwable newInstance(String message, boolean fillStackTrace) {
+        if (constructor == null) {
+            return fillStackTrace ? new RuntimeException(message, failure) : new UnknownException(message, failure);
+        }
+        try {
+            return (Throwable) constructor.invokeExact(message);
+        } catch (Throwable e) {
+            return fillStackTrace ? new RuntimeException(message, e) : new UnknownException(message, e);
+        }
+    }
+
+    /**
+     * replaces an exception of unknown class, it skips the stack walk
+     */
+    private static final class UnknownException extends RuntimeException {
+        UnknownException(String message, Throwable cause) {
+            super(message, cause, true, false);
+        }
+    }
+}
@@ -14,6 +14,8 @@ public class GlobalSettings {
         globalBodyTrigger = load.bodyTrigger;
         globalRequestMask = load.requestMask;
         globalBodyMethods = load.bodyMethods;
+        globalMaxStubs = load.maxStubs;
+        globalStubsMemory = load.stubsMemory;
     }
 
     private GlobalSettings() {
@@ -41,4 +43,14 @@ public class GlobalSettings {
      */
     public static final String[] globalBodyMethods;
 
+    /**
+     * max number of stubs with loaded documents, 0 - no limit
+     */
+    public static final int globalMaxStubs;
+
+    /**
+     * heap budget of documents loaded by stubs of the manager in bytes, 0 - no limit
+     */
+    public static final long globalStubsMemory;
+
 }
@@ -0,0 +1,27 @@
+package org.anystub;
+
+/**
+ * Specifies how a stub keeps requests for {@link Base#history()}, {@link Base#match(String...)} and {@link Base#times(String...)}
+ */
+public enum HistoryMode {
+    /**
+     * keeps all requests until the stub is cleared
+     */
+    hmFull,
+
+    /**
+     * keeps last requests only, the number of requests is set by historySize
+     */
+    hmRing,
+
+    /**
+     * keeps number of requests for each key without the requests,
+     * history() returns nothing, times() and timesEx() count requests
+     */
+    hmCounters,
+
+    /**
+     * keeps nothing
+     */
+    hmOff
+}
@@ -0,0 +1,76 @@
+package org.anystub;
+
+/**
+ * identifies a partition of request history for stubs with partitioned history, see {@link Base#partitionHistory(boolean)}.
+ * a test sees only requests of its own partition in history(), match() and times().
+ * <p>
+ * the partition is bound to the thread and inherited by threads it creates.
+ * when a stub is discovered by {@link AnyStubFileLocator#discoverFile()} the partition is set to the discovered test,
+ * when the thread discovers no test later the partition is released.
+ * if no partition is set the thread is the partition
+ */
+public final class HistoryPartition {
+
+    private static final InheritableThreadLocal<Binding> partition = new InheritableThreadLocal<>();
+
+    private HistoryPartition() {
+    }
+
+    /**
+     * binds current thread to the partition
+     *
+     * @param key identity of the partition
+     */
+    public static void set(Object key) {
+        partition.set(new Binding(key, false));
+    }
+
+    /**
+     * unbinds current thread, its requests go to the partition of the thread
+     */
+    public static void clear() {
+        partition.remove();
+    }
+
+    /**
+     * @return identity of the partition for the current thread
+     */
+    public static Object current() {
+        Binding binding = partition.get();
+        return binding != null ? binding.key : Thread.currentThread();
+    }
+
+    /**
+     * binds current thread to the partition of a discovered test
+     *
+     * @param key discovered test
+     */
+    static void discovered(Object key) {
+        Binding binding = partition.get();
+        if (binding == null || binding.key != key) {
+            partition.set(new Binding(key, true));
+        }
+    }
+
+    /**
+     * releases the partition of a test which was discovered by current thread, the test is over.
+     * partitions inherited from other threads and ones set explicitly stay
+     */
+    static void undiscovered() {
+        Binding binding = partition.get();
+        if (binding != null && binding.discovered && binding.owner == Thread.currentThread()) {
+            partition.remove();
+        }
+    }
+
+    private static final class Binding {
+        private final Object key;
+        private final boolean discovered;
+        private final Thread owner = Thread.currentThread();
+
+        Binding(Object key, boolean discovered) {
+            this.key = key;
+            this.discovered = discovered;
+        }
+    }
+}
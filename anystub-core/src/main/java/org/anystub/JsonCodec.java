@@ -0,0 +1,121 @@
+package org.anystub;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+import java.lang.reflect.Type;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Logger;
+
+import static java.util.Collections.singletonList;
+
+/**
+ * keeps a response as a single json-string, see {@link Base#request(Supplier, Class, Object...)}.
+ * codecs are built once per type, so json readers are not resolved on every request.
+ * decoded responses are memoized only if their type is immutable, see {@link Base#memoize(int)}
+ *
+ * @param <R> type of the response
+ */
+class JsonCodec<R> implements Decoder<R>, Encoder<R> {
+
+    private static final Logger log = Logger.getLogger(JsonCodec.class.getName());
+    private static final Map<Class<?>, JsonCodec<?>> BY_CLASS = new ConcurrentHashMap<>();
+    private static final Map<Type, JsonCodec<?>> BY_TYPE = new ConcurrentHashMap<>();
+
+    private final DecoderSimple<R> decoder;
+
+    private JsonCodec(DecoderSimple<R> decoder) {
+        this.decoder = decoder;
+    }
+
+    /**
+     * @param responseClass class of the response
+     * @return codec which throws {@link TypeNotPresentException} if a response can't be decoded
+     */
+    @SuppressWarnings("unchecked")
+    static <R> JsonCodec<R> forClass(Class<R> responseClass) {
+        return (JsonCodec<R>) BY_CLASS.computeIfAbsent(responseClass,
+                aClass -> create(aClass, new DecoderJson<>(aClass)));
+    }
+
+    /**
+     * @param returnType type of the response
+     * @return codec which returns null if a response can't be decoded
+     */
+    @SuppressWarnings("unchecked")
+    static <R> JsonCodec<R> forType(TypeReference<R> returnType) {
+        // type references are usually anonymous classes built on each call, their types are equal
+        return (JsonCodec<R>) BY_TYPE.computeIfAbsent(returnType.getType(), type -> {
+            ObjectReader reader = ObjectMapperFactory.get().readerFor(returnType);
+            return JsonCodec.<R>create(reader.getValueType().getRawClass(), values -> {
+                try {
+                    return reader.readValue(values);
+                } catch (JsonProcessingException | RuntimeException e) {
+                    log.finest(() -> String.format("cannot recover object %s from %s", type, values));
+                }
+                return null;
+            });
+        });
+    }
+
+    private static <R> JsonCodec<R> create(Class<?> rawClass, DecoderSimple<R> decoder) {
+        return immutable(rawClass) ? new Shared<>(decoder) : new JsonCodec<>(decoder);
+    }
+
+    /**
+     * @param aClass raw class of responses
+     * @return true if objects of the class can't be changed by callers
+     */
+    static boolean immutable(Class<?> aClass) {
+        return aClass == String.class ||
+                aClass == Boolean.class ||
+                aClass == Character.class ||
+                aClass == Byte.class ||
+                aClass == Short.class ||
+                aClass == Integer.class ||
+                aClass == Long.class ||
+                aClass == Float.class ||
+                aClass == Double.class ||
+                aClass == BigInteger.class ||
+                aClass == BigDecimal.class ||
+                aClass == UUID.class ||
+                aClass.isEnum() ||
+                aClass.getName().startsWith("java.time.");
+    }
+
+    @Override
+    public R decode(Iterable<String> values) {
+        return values == null ? null : decoder.decode(values.iterator().next());
+    }
+
+    @Override
+    public Iterable<String> encode(R r) {
+        return r == null ? null : singletonList(EncoderKey.encode(r));
+    }
+
+    /**
+     * codec of immutable responses, they are shared by replays
+     */
+    private static final class Shared<R> extends JsonCodec<R> implements ReusableDecoder<R> {
+
+        private Shared(DecoderSimple<R> decoder) {
+            super(decoder);
+        }
+
+        @Override
+        public R reuse(R decoded) {
+            return decoded;
+        }
+
+        @Override
+        public Object memoKey() {
+            // codecs are built once per type
+            return this;
+        }
+    }
+}
@@ -1,7 +1,5 @@
 package org.anystub;
 
-import static java.util.Arrays.stream;
-
 public class KeysSupplierCashed implements KeysSupplier {
     private String[] keys = null;
 
@@ -22,14 +20,11 @@ public class KeysSupplierCashed implements KeysSupplier {
 
     private String[] mask(String[] keys) {
         AnyStubId anyStubId = AnyStubFileLocator.discoverFile();
-        if (anyStubId == null || anyStubId.requestMasks() == null || anyStubId.requestMasks().length == 0) {
+        if (anyStubId == null) {
             return keys;
         }
 
-        return stream(keys)
-                .map(k -> stream(anyStubId.requestMasks())
-                        .reduce(k, (r, m) -> r.replaceAll(m, "...")))
-                .toArray(String[]::new);
-
+        return MaskEngine.of(anyStubId.requestMasks())
+                .maskKeys(keys);
     }
 }
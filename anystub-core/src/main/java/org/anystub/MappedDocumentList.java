@@ -0,0 +1,63 @@
+package org.anystub;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Optional;
+import java.util.logging.Logger;
+
+import static java.util.Arrays.asList;
+
+/**
+ * document list over a memory-mapped binary stub-file.
+ * only the index of the file is kept in heap, documents from the file are decoded on the first request.
+ * added and decoded documents are kept in the in-memory list, it's looked up first
+ */
+public class MappedDocumentList implements DocumentListI {
+
+    private static final Logger log = Logger.getLogger(MappedDocumentList.class.getName());
+
+    private final DocumentListI documents;
+    private volatile BinaryStubStorage.Mapped mapped;
+
+    /**
+     * @param documents in-memory list, documents in it take priority over the file
+     * @param mapped    mapped stub-file
+     */
+    MappedDocumentList(DocumentListI documents, BinaryStubStorage.Mapped mapped) {
+        this.documents = documents;
+        this.mapped = mapped;
+    }
+
+    @Override
+    public void add(Document document) {
+        documents.add(document);
+    }
+
+    @Override
+    public void clear() {
+        mapped = null;
+        documents.clear();
+    }
+
+    @Override
+    public Optional<Document> getDocument(String[] keys) {
+        Optional<Document> document = documents.getDocument(keys);
+        BinaryStubStorage.Mapped file = mapped;
+        if (document.isPresent() || file == null) {
+            return document;
+        }
+
+        List<String> key = asList(keys);
+        try {
+            Optional<Document> found = file.find(key);
+            if (!found.isPresent()) {
+                return found;
+            }
+            documents.add(found.get());
+        } catch (IOException e) {
+            log.severe(() -> String.format("failed to read %s: %s", key, e.getMessage()));
+            return Optional.empty();
+        }
+        return documents.getDocument(keys);
+    }
+}
@@ -0,0 +1,182 @@
+package org.anystub;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+import java.util.stream.Collectors;
+
+import static java.util.Arrays.asList;
+import static java.util.Arrays.stream;
+
+/**
+ * replaces parts of keys and bodies matched to request masks with ellipsis (...).
+ * masks are compiled once for every set of masks.
+ * <p>
+ * before running regex it checks if a string contains literal prefix of any mask,
+ * if every mask starts with a literal and none of them is found the string is returned as is
+ */
+public final class MaskEngine {
+
+    private static final String ELLIPSIS = "...";
+    private static final String META = "\\.[]{}()*+?^$|";
+    /**
+     * numbered or named back reference, groups are renumbered when masks are combined
+     */
+    private static final Pattern BACK_REFERENCE = Pattern.compile("\\\\(?:[1-9]|k<)");
+    private static final MaskEngine EMPTY = new MaskEngine(new String[0]);
+    private static final ConcurrentHashMap<List<String>, MaskEngine> engines = new ConcurrentHashMap<>();
+
+    private final Pattern[] patterns;
+    private final Pattern combined;
+    /**
+     * literal prefixes of masks, null if at least one mask has no literal prefix
+     */
+    private final String[] prefixes;
+
+    private MaskEngine(String[] masks) {
+        this.patterns = stream(masks)
+                .map(Pattern::compile)
+                .toArray(Pattern[]::new);
+        this.combined = combine(masks);
+        String[] literals = stream(masks)
+                .map(MaskEngine::literalPrefix)
+                .toArray(String[]::new);
+        this.prefixes = stream(literals).anyMatch(String::isEmpty) ? null : literals;
+    }
+
+    /**
+     * returns an engine for given masks, engines are cached
+     *
+     * @param masks regex expressions
+     * @return engine
+     */
+    public static MaskEngine of(String[] masks) {
+        if (masks == null || masks.length == 0) {
+            return EMPTY;
+        }
+        return engines.computeIfAbsent(asList(masks.clone()), m -> new MaskEngine(m.toArray(new String[0])));
+    }
+
+    /**
+     * masks every key applying masks one by one
+     *
+     * @param keys keys to mask
+     * @return masked keys
+     */
+    public String[] maskKeys(String[] keys) {
+        if (patterns.length == 0) {
+            return keys;
+        }
+        String[] res = new String[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            res[i] = maskKey(keys[i]);
+        }
+        return res;
+    }
+
+    /**
+     * masks a key applying masks one by one, result of a mask is the input of the next one
+     *
+     * @param key key to mask
+     * @return masked key
+     */
+    public String maskKey(String key) {
+        if (key == null || skip(key)) {
+            return key;
+        }
+        String res = key;
+        for (Pattern pattern : patterns) {
+            res = pattern.matcher(res).replaceAll(ELLIPSIS);
+        }
+        return res;
+    }
+
+    /**
+     * masks a body applying all masks at once
+     *
+     * @param body body to mask
+     * @return masked body
+     */
+    public String maskBody(String body) {
+        if (body == null || skip(body)) {
+            return body;
+        }
+        if (combined == null) {
+            return maskKey(body);
+        }
+        return combined.matcher(body).replaceAll(ELLIPSIS);
+    }
+
+    private boolean skip(String s) {
+        if (patterns.length == 0) {
+            return true;
+        }
+        if (prefixes != null) {
+            for (String prefix : prefixes) {
+                if (s.contains(prefix)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        return combined != null && !combined.matcher(s).find();
+    }
+
+    private static Pattern combine(String[] masks) {
+        if (masks.length == 0) {
+            return null;
+        }
+        if (masks.length == 1) {
+            return Pattern.compile(masks[0]);
+        }
+        if (stream(masks).anyMatch(mask -> BACK_REFERENCE.matcher(mask).find())) {
+            // wrapping a mask into a group shifts numbers of its groups
+            return null;
+        }
+        try {
+            return Pattern.compile(stream(masks)
+                    .map(r -> String.format("(%s)", r))
+                    .collect(Collectors.joining("|")));
+        } catch (PatternSyntaxException e) {
+            return null;
+        }
+    }
+
+    /**
+     * extracts leading literal of a regex, which is required for any match
+     *
+     * @param mask regex expression
+     * @return literal prefix, empty string if the regex doesn't start with a literal
+     */
+    static String literalPrefix(String mask) {
+        if (mask.indexOf('|') >= 0) {
+            return "";
+        }
+        StringBuilder res = new StringBuilder();
+        int i = 0;
+        while (i < mask.length()) {
+            char c = mask.charAt(i);
+            if (c == '\\') {
+                if (i + 1 >= mask.length() || Character.isLetterOrDigit(mask.charAt(i + 1))) {
+                    break;
+                }
+                c = mask.charAt(i + 1);
+                i += 2;
+            } else if (META.indexOf(c) >= 0) {
+                break;
+            } else {
+                i++;
+            }
+            res.append(c);
+        }
+        if (i < mask.length() && res.length() > 0) {
+            char next = mask.charAt(i);
+            if (next == '*' || next == '?' || next == '{') {
+                // the last literal is optional
+                res.setLength(res.length() - 1);
+            }
+        }
+        return res.toString();
+    }
+}
@@ -0,0 +1,422 @@
+package org.anystub;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * keeps requests passed through a stub in order, see {@link HistoryMode}.
+ * adding a request doesn't take a lock
+ */
+abstract class RequestHistory {
+
+    /**
+     * @param mode mode of the history
+     * @param size max number of requests for {@link HistoryMode#hmRing}
+     * @return empty history
+     */
+    static RequestHistory of(HistoryMode mode, int size) {
+        switch (mode) {
+            case hmRing:
+                return new Ring(size);
+            case hmCounters:
+                return new Counters();
+            case hmOff:
+                return new Off();
+            default:
+                return new Full();
+        }
+    }
+
+    /**
+     * builds history which keeps requests by partitions, see {@link HistoryPartition}.
+     * requests are added into buffers of threads, buffers of a partition are merged on query
+     *
+     * @param mode mode of the history in each partition
+     * @param size max number of requests for {@link HistoryMode#hmRing}
+     * @return empty history
+     */
+    static RequestHistory partitioned(HistoryMode mode, int size) {
+        return new Partitioned(mode, size);
+    }
+
+    abstract void add(Document document);
+
+    abstract void clear();
+
+    /**
+     * @return requests in order they came
+     */
+    abstract Iterable<Document> documents();
+
+    Stream<Document> stream() {
+        return StreamSupport.stream(documents().spliterator(), false);
+    }
+
+    /**
+     * counts requests like {@link Document#match_to(String...)}
+     *
+     * @param keys keys for matching, null values match any key
+     * @return number of matched requests
+     */
+    long count(String... keys) {
+        long count = 0;
+        for (Document document : documents()) {
+            if (keys == null || document.match_to(keys)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * counts requests like {@link Document#matchEx_to(String...)}
+     *
+     * @param keys regular expressions for matching, null values match any key
+     * @return number of matched requests
+     */
+    long countEx(String... keys) {
+        long count = 0;
+        for (Document document : documents()) {
+            if (document.matchEx_to(keys)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * counts requests like {@link Document#matchEx_to(String[], String[])}
+     *
+     * @param keys   regular expressions for matching by keys
+     * @param values regular expressions for matching by values
+     * @return number of matched requests
+     */
+    long countEx(String[] keys, String[] values) {
+        long count = 0;
+        for (Document document : documents()) {
+            if (document.matchEx_to(keys, values)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * keeps all requests.
+     * counting of requests by keys uses an index - a trie by positions of the keys,
+     * new requests are added to the index on the next query
+     */
+    private static class Full extends RequestHistory {
+
+        private static final Object NULL_KEY = new Object();
+
+        private final Queue<Document> documents = new ConcurrentLinkedQueue<>();
+        private final Queue<Document> unindexed = new ConcurrentLinkedQueue<>();
+        private Node root = new Node();
+
+        @Override
+        void add(Document document) {
+            documents.add(document);
+            unindexed.add(document);
+        }
+
+        @Override
+        synchronized void clear() {
+            documents.clear();
+            unindexed.clear();
+            root = new Node();
+        }
+
+        @Override
+        Iterable<Document> documents() {
+            return documents;
+        }
+
+        @Override
+        Stream<Document> stream() {
+            return documents.stream();
+        }
+
+        @Override
+        synchronized long count(String... keys) {
+            index();
+            if (keys == null) {
+                return root.count;
+            }
+            return count(root, keys, 0);
+        }
+
+        private void index() {
+            Document document;
+            while ((document = unindexed.poll()) != null) {
+                Node node = root;
+                node.count++;
+                for (String key : document.getKey()) {
+                    node = node.children.computeIfAbsent(key == null ? NULL_KEY : key, k -> new Node());
+                    node.count++;
+                }
+            }
+        }
+
+        private static long count(Node node, String[] keys, int position) {
+            if (position == keys.length) {
+                return node.count;
+            }
+            if (keys[position] != null) {
+                Node child = node.children.get(keys[position]);
+                return child == null ? 0 : count(child, keys, position + 1);
+            }
+            long count = 0;
+            for (Node child : node.children.values()) {
+                count += count(child, keys, position + 1);
+            }
+            return count;
+        }
+
+        /**
+         * node of the trie, keeps number of requests which keys start with the path to the node
+         */
+        private static class Node {
+            private final Map<Object, Node> children = new HashMap<>();
+            private long count = 0;
+        }
+    }
+
+    /**
+     * keeps last requests
+     */
+    private static class Ring extends RequestHistory {
+
+        private final AtomicReferenceArray<Document> documents;
+        private final AtomicLong next = new AtomicLong();
+
+        Ring(int size) {
+            documents = new AtomicReferenceArray<>(Math.max(1, size));
+        }
+
+        @Override
+        void add(Document document) {
+            documents.set((int) (next.getAndIncrement() % documents.length()), document);
+        }
+
+        @Override
+        void clear() {
+            next.set(0);
+            for (int i = 0; i < documents.length(); i++) {
+                documents.set(i, null);
+            }
+        }
+
+        @Override
+        Iterable<Document> documents() {
+            long end = next.get();
+            long start = Math.max(0, end - documents.length());
+            List<Document> res = new ArrayList<>((int) (end - start));
+            for (long i = start; i < end; i++) {
+                Document document = documents.get((int) (i % documents.length()));
+                if (document != null) {
+                    res.add(document);
+                }
+            }
+            return res;
+        }
+    }
+
+    /**
+     * keeps number of requests by keys,
+     * the first request with the key is used to match values
+     */
+    private static class Counters extends RequestHistory {
+
+        private final Map<Document.DocumentKey, Counter> counters = new ConcurrentHashMap<>();
+
+        @Override
+        void add(Document document) {
+            counters.computeIfAbsent(document.key(), k -> new Counter(document))
+                    .count.increment();
+        }
+
+        @Override
+        void clear() {
+            counters.clear();
+        }
+
+        @Override
+        Iterable<Document> documents() {
+            return Collections.emptyList();
+        }
+
+        @Override
+        long count(String... keys) {
+            long count = 0;
+            for (Counter counter : counters.values()) {
+                if (keys == null || counter.document.match_to(keys)) {
+                    count += counter.count.sum();
+                }
+            }
+            return count;
+        }
+
+        @Override
+        long countEx(String... keys) {
+            long count = 0;
+            for (Counter counter : counters.values()) {
+                if (counter.document.matchEx_to(keys)) {
+                    count += counter.count.sum();
+                }
+            }
+            return count;
+        }
+
+        @Override
+        long countEx(String[] keys, String[] values) {
+            long count = 0;
+            for (Counter counter : counters.values()) {
+                if (counter.document.matchEx_to(keys, values)) {
+                    count += counter.count.sum();
+                }
+            }
+            return count;
+        }
+
+        private static class Counter {
+            private final Document document;
+            private final LongAdder count = new LongAdder();
+
+            Counter(Document document) {
+                this.document = document;
+            }
+        }
+    }
+
+    /**
+     * keeps requests of each partition separately.
+     * a thread adds requests into own buffer, a query merges buffers of the current partition,
+     * the order of requests is kept within a buffer
+     */
+    private static class Partitioned extends RequestHistory {
+
+        private final HistoryMode mode;
+        private final int size;
+        /**
+         * partitions are kept weakly, so finished threads and forgotten tests don't keep their buffers
+         */
+        private final Map<Object, List<RequestHistory>> partitions = Collections.synchronizedMap(new WeakHashMap<>());
+        private final ThreadLocal<Buffers> buffers = ThreadLocal.withInitial(Buffers::new);
+        /**
+         * changed by clear(), buffers of a thread from an older generation are dropped
+         */
+        private volatile Object generation = new Object();
+
+        Partitioned(HistoryMode mode, int size) {
+            this.mode = mode;
+            this.size = size;
+        }
+
+        @Override
+        void add(Document document) {
+            Buffers local = buffers.get();
+            Object current = generation;
+            if (local.generation != current) {
+                local.generation = current;
+                local.byPartition.clear();
+            }
+            local.byPartition
+                    .computeIfAbsent(HistoryPartition.current(), key -> {
+                        RequestHistory buffer = of(mode, size);
+                        partitions.computeIfAbsent(key, k -> new CopyOnWriteArrayList<>()).add(buffer);
+                        return buffer;
+                    })
+                    .add(document);
+        }
+
+        @Override
+        void clear() {
+            // threads register new buffers on the next add
+            generation = new Object();
+            partitions.clear();
+        }
+
+        private List<RequestHistory> current() {
+            return partitions.getOrDefault(HistoryPartition.current(), Collections.emptyList());
+        }
+
+        @Override
+        Iterable<Document> documents() {
+            List<Document> res = new ArrayList<>();
+            for (RequestHistory buffer : current()) {
+                buffer.documents().forEach(res::add);
+            }
+            return res;
+        }
+
+        @Override
+        long count(String... keys) {
+            long count = 0;
+            for (RequestHistory buffer : current()) {
+                count += buffer.count(keys);
+            }
+            return count;
+        }
+
+        @Override
+        long countEx(String... keys) {
+            long count = 0;
+            for (RequestHistory buffer : current()) {
+                count += buffer.countEx(keys);
+            }
+            return count;
+        }
+
+        @Override
+        long countEx(String[] keys, String[] values) {
+            long count = 0;
+            for (RequestHistory buffer : current()) {
+                count += buffer.countEx(keys, values);
+            }
+            return count;
+        }
+
+        /**
+         * buffers of a thread by partitions
+         */
+        private static class Buffers {
+            private final Map<Object, RequestHistory> byPartition = new WeakHashMap<>();
+            private Object generation;
+        }
+    }
+
+    /**
+     * keeps nothing
+     */
+    private static class Off extends RequestHistory {
+
+        @Override
+        void add(Document document) {
+            // history is disabled
+        }
+
+        @Override
+        void clear() {
+            // nothing to clear
+        }
+
+        @Override
+        Iterable<Document> documents() {
+            return Collections.emptyList();
+        }
+    }
+}
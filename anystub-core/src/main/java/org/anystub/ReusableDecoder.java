@@ -0,0 +1,25 @@
+package org.anystub;
+
+/**
+ * decoder which results could be memoized by a stub, see {@link Base#memoize(boolean)}.
+ * a document is decoded once, every replay of the document gets the result through {@link #reuse(Object)}
+ *
+ * @param <T> type of decoded objects
+ */
+public interface ReusableDecoder<T> extends Decoder<T> {
+
+    /**
+     * @param decoded result of {@link #decode(Iterable)} kept by the stub, it's given out only if it's immutable
+     * @return object for a replay: a copy of the decoded object, or the object itself if it's immutable
+     */
+    T reuse(T decoded);
+
+    /**
+     * results of decoders with equal keys are shared
+     *
+     * @return key of the decoder in the memo, the class of the decoder by default
+     */
+    default Object memoKey() {
+        return getClass();
+    }
+}
@@ -71,20 +71,12 @@ public class SettingsUtil {
      */
     public static String maskBody(String s, AnyStubId settings) {
 
-        if (settings==null || settings.requestMasks().length == 0) {
+        if (settings == null) {
             return s;
         }
 
-        String combinedRule;
-        if (settings.requestMasks().length>1) {
-            combinedRule = stream(settings.requestMasks()).
-                    map(r->String.format("(%s)", r))
-                    .collect(Collectors.joining("|"));
-        } else {
-            combinedRule = settings.requestMasks()[0];
-        }
-
-        return s.replaceAll(combinedRule, "...");
+        return MaskEngine.of(settings.requestMasks())
+                .maskBody(s);
     }
 
 }
@@ -10,6 +10,8 @@ import java.io.ObjectOutputStream;
 import java.io.RandomAccessFile;
 import java.io.Reader;
 import java.io.Serializable;
+import java.io.StringWriter;
+import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.Base64;
@@ -22,29 +24,28 @@ public class StringUtil {
     }
 
 
+    /**
+     * @param text text to check
+     * @return true if every line of the text contains only printable ascii characters
+     */
     public static boolean isText(String text) {
-        return Arrays.stream(text.split("\n"))
-                .allMatch(s -> s.matches("\\p{Print}*"));
-    }
-
-    public static boolean isText(byte[] symbols) {
-        String t = new String(symbols, StandardCharsets.UTF_8);
-        for(char c: t.toCharArray()) {
-            if (Character.isWhitespace(c)) {
-                continue;
-            }
-            Character.UnicodeBlock block = Character.UnicodeBlock.of( c );
-            if(block ==null ||
-                block == Character.UnicodeBlock.SPECIALS ||
-                c == 0xFFFF ||  //CHAR_UNDEFINED
-                Character.isISOControl(c)
-            ) {
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c != '\n' && (c < 0x20 || c > 0x7E)) {
                 return false;
             }
         }
         return true;
     }
 
+    /**
+     * @param symbols utf-8 data
+     * @return true if data is printable text, see {@link TextClassifier}
+     */
+    public static boolean isText(byte[] symbols) {
+        return TextClassifier.isText(symbols);
+    }
+
     /**
      * converts binary for keeping in stub-file
      *
@@ -53,7 +54,7 @@ public class StringUtil {
      */
     public static String toCharacterString(byte[] bytes) {
         String result;
-        if (StringUtil.isText(bytes)) {
+        if (TextClassifier.isText(bytes)) {
             String bodyText = new String(bytes, StandardCharsets.UTF_8);
             result = escapeCharacterString(bodyText);
         } else {
@@ -106,11 +107,7 @@ public class StringUtil {
         String[] sKeys = new String[keys.length];
 
         for (int i = 0; i < keys.length; i++) {
-            if (keys[i] == null) {
-                sKeys[i] = null;
-                continue;
-            }
-            sKeys[i] = new EncoderJson<>().encode(keys[i]);
+            sKeys[i] = EncoderKey.encode(keys[i]);
         }
         return sKeys;
     }
@@ -138,14 +135,10 @@ public class StringUtil {
      * @return
      */
     public static byte[] readStream(InputStream inputStream) {
-        try (ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream()) {
-            int r;
-            while ((r = inputStream.read()) != -1) {
-                byteArrayOutputStream.write(r);
-            }
-            return byteArrayOutputStream.toByteArray();
+        try {
+            return inputStream.readAllBytes();
         } catch (IOException e) {
-            throw new UnsupportedOperationException("failed save InputStream");
+            throw new UnsupportedOperationException("failed save InputStream", e);
         }
     }
 
@@ -160,14 +153,26 @@ public class StringUtil {
 
 
     public static String toCharacterString(Reader reader) {
-        try (ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream()) {
-            int r;
-            while ((r = reader.read()) != -1) {
-                byteArrayOutputStream.write(r);
+        return toCharacterString(reader, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * converts characters for keeping in stub-file
+     *
+     * @param reader  source of characters
+     * @param charset charset to encode non-printable text into base64
+     * @return text or base64 representation
+     */
+    public static String toCharacterString(Reader reader, Charset charset) {
+        try (StringWriter writer = new StringWriter()) {
+            reader.transferTo(writer);
+            String text = writer.toString();
+            if (TextClassifier.isText(text)) {
+                return escapeCharacterString(text);
             }
-            return StringUtil.toCharacterString(byteArrayOutputStream.toByteArray());
+            return BASE64_PREFIX + Base64.getEncoder().encodeToString(text.getBytes(charset));
         } catch (IOException e) {
-            throw new UnsupportedOperationException("failed save InputStream");
+            throw new UnsupportedOperationException("failed save Reader", e);
         }
     }
 
@@ -0,0 +1,52 @@
+package org.anystub;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.logging.Logger;
+
+/**
+ * converts stub-files between formats.
+ * format of a file is defined by its extension, see {@link StubStorage#forFile(String)}
+ * <p>
+ * example: StubConverter.convert("src/test/resources/anystub/jdbc.yml", "src/test/resources/anystub/jdbc.bin")
+ */
+public class StubConverter {
+
+    private static final Logger log = Logger.getLogger(StubConverter.class.getName());
+
+    private StubConverter() {
+    }
+
+    /**
+     * reads all documents from source stub-file and writes them into target stub-file.
+     * existing target stub-file is overridden
+     *
+     * @param from path to source stub-file
+     * @param to   path to target stub-file
+     * @return number of converted documents
+     * @throws IOException due to file access error
+     */
+    public static int convert(String from, String to) throws IOException {
+        List<Document> documents = StubStorage.forFile(from).load();
+
+        File path = new File(to).getParentFile();
+        if (path != null
+                && !path.exists()
+                && path.mkdirs()) {
+            log.info(() -> "dirs created");
+        }
+
+        StubStorage.forFile(to).write(documents);
+        return documents.size();
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("usage: StubConverter <source stub-file> <target stub-file>");
+            System.exit(1);
+        }
+        int count = convert(args[0], args[1]);
+        System.out.printf("%d documents converted from %s to %s%n", count, args[0], args[1]);
+    }
+}
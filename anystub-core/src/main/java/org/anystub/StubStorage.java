@@ -0,0 +1,65 @@
+package org.anystub;
+
+import java.io.IOException;
+import java.util.List;
+
+import static java.util.Collections.singletonList;
+
+/**
+ * keeps documents of a stub in a file.
+ * the format is chosen by extension of the stub-file:
+ * - {@link BinaryStubStorage#EXTENSION} - binary record log with key-hash index
+ * - anything else - yaml
+ */
+public interface StubStorage {
+
+    /**
+     * reads all documents from the stub-file
+     *
+     * @return documents in order of recording
+     * @throws java.io.FileNotFoundException if the stub-file doesn't exist
+     * @throws IOException                   due to file access error
+     */
+    List<Document> load() throws IOException;
+
+    /**
+     * writes a document into the stub-file
+     *
+     * @param document document to write
+     * @param append   if false existing file is overridden
+     * @throws IOException due to file access error
+     */
+    default void save(Document document, boolean append) throws IOException {
+        save(singletonList(document), append);
+    }
+
+    /**
+     * writes documents into the stub-file opening it once
+     *
+     * @param documents documents to write
+     * @param append    if false existing file is overridden
+     * @throws IOException due to file access error
+     */
+    void save(List<Document> documents, boolean append) throws IOException;
+
+    /**
+     * overrides the stub-file with given documents
+     *
+     * @param documents documents to write
+     * @throws IOException due to file access error
+     */
+    void write(List<Document> documents) throws IOException;
+
+    /**
+     * creates a storage for the stub-file
+     *
+     * @param filePath path to the stub-file
+     * @return storage for the format of the file
+     */
+    static StubStorage forFile(String filePath) {
+        if (filePath.endsWith(BinaryStubStorage.EXTENSION)) {
+            return new BinaryStubStorage(filePath);
+        }
+        return new YamlStubStorage(filePath);
+    }
+}
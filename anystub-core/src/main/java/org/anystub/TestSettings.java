@@ -28,6 +28,61 @@ public class TestSettings {
      */
     public final boolean testFilePrefix;
 
+    /**
+     * memory-map binary stub-files and decode documents on demand
+     */
+    public final boolean lazyLoad;
+
+    /**
+     * fill stack trace of replayed exceptions of unknown classes, see {@link Base#fillStackTrace(boolean)}
+     */
+    public final boolean fillStackTrace;
+
+    /**
+     * number of recorded documents written into a stub-file by one batch
+     */
+    public final int flushSize;
+
+    /**
+     * max delay in milliseconds of writing a recorded document, 0 - no time limit
+     */
+    public final long flushMillis;
+
+    /**
+     * how stubs keep requests
+     */
+    public final HistoryMode historyMode;
+
+    /**
+     * max number of requests kept in {@link HistoryMode#hmRing} mode
+     */
+    public final int historySize;
+
+    /**
+     * keep requests of concurrent tests separately
+     */
+    public final boolean partitionHistory;
+
+    /**
+     * reuse decoded responses of documents, see {@link Base#memoize(boolean)}
+     */
+    public final boolean memoize;
+
+    /**
+     * max number of decoded responses kept by a stub
+     */
+    public final int memoizeSize;
+
+    /**
+     * max number of stubs with loaded documents, documents of idle stubs over it are released, 0 - no limit
+     */
+    public final int maxStubs;
+
+    /**
+     * heap budget of documents loaded by stubs of the manager in bytes, 0 - no limit
+     */
+    public final long stubsMemory;
+
     /**
      * reserved for server storage-mode
      */
@@ -37,12 +92,26 @@ public class TestSettings {
      */
     public final String stubServer = "";
 
-    private TestSettings(String[] headers, String[] bodyTrigger, String[] requestMask, String[] bodyMethods, boolean testFilePrefix) {
+    private TestSettings(String[] headers, String[] bodyTrigger, String[] requestMask, String[] bodyMethods, boolean testFilePrefix, boolean lazyLoad,
+                         boolean fillStackTrace, int flushSize, long flushMillis, HistoryMode historyMode, int historySize,
+                         boolean partitionHistory, boolean memoize, int memoizeSize,
+                         int maxStubs, long stubsMemory) {
         this.headers = headers;
         this.bodyTrigger = bodyTrigger;
         this.requestMask = requestMask;
         this.bodyMethods = bodyMethods;
         this.testFilePrefix = testFilePrefix;
+        this.lazyLoad = lazyLoad;
+        this.fillStackTrace = fillStackTrace;
+        this.flushSize = flushSize;
+        this.flushMillis = flushMillis;
+        this.historyMode = historyMode;
+        this.historySize = historySize;
+        this.partitionHistory = partitionHistory;
+        this.memoize = memoize;
+        this.memoizeSize = memoizeSize;
+        this.maxStubs = maxStubs;
+        this.stubsMemory = stubsMemory;
     }
 
     public static Builder builder() {
@@ -59,6 +128,28 @@ public class TestSettings {
 
         public boolean testFilePrefix;
 
+        public boolean lazyLoad;
+
+        public boolean fillStackTrace = true;
+
+        public int flushSize = 1;
+
+        public long flushMillis;
+
+        public HistoryMode historyMode = HistoryMode.hmFull;
+
+        public int historySize;
+
+        public boolean partitionHistory;
+
+        public boolean memoize;
+
+        public int memoizeSize = ConfigFileUtil.DEFAULT_MEMO_SIZE;
+
+        public int maxStubs;
+
+        public long stubsMemory;
+
         public Builder setHeaders(String[] headers) {
             this.headers = headers;
             return this;
@@ -84,13 +175,79 @@ public class TestSettings {
             return this;
         }
 
+        public Builder setLazyLoad(boolean lazyLoad) {
+            this.lazyLoad = lazyLoad;
+            return this;
+        }
+
+        public Builder setFillStackTrace(boolean fillStackTrace) {
+            this.fillStackTrace = fillStackTrace;
+            return this;
+        }
+
+        public Builder setFlushSize(int flushSize) {
+            this.flushSize = flushSize;
+            return this;
+        }
+
+        public Builder setFlushMillis(long flushMillis) {
+            this.flushMillis = flushMillis;
+            return this;
+        }
+
+        public Builder setHistoryMode(HistoryMode historyMode) {
+            this.historyMode = historyMode;
+            return this;
+        }
+
+        public Builder setHistorySize(int historySize) {
+            this.historySize = historySize;
+            return this;
+        }
+
+        public Builder setPartitionHistory(boolean partitionHistory) {
+            this.partitionHistory = partitionHistory;
+            return this;
+        }
+
+        public Builder setMemoize(boolean memoize) {
+            this.memoize = memoize;
+            return this;
+        }
+
+        public Builder setMemoizeSize(int memoizeSize) {
+            this.memoizeSize = memoizeSize;
+            return this;
+        }
+
+        public Builder setMaxStubs(int maxStubs) {
+            this.maxStubs = maxStubs;
+            return this;
+        }
+
+        public Builder setStubsMemory(long stubsMemory) {
+            this.stubsMemory = stubsMemory;
+            return this;
+        }
+
         public TestSettings build() {
             return new TestSettings(
                     headers,
                     bodyTrigger,
                     requestMask,
                     bodyMethods,
-                    testFilePrefix);
+                    testFilePrefix,
+                    lazyLoad,
+                    fillStackTrace,
+                    flushSize,
+                    flushMillis,
+                    historyMode,
+                    historySize,
+                    partitionHistory,
+                    memoize,
+                    memoizeSize,
+                    maxStubs,
+                    stubsMemory);
         }
     }
 }
@@ -0,0 +1,138 @@
+package org.anystub;
+
+/**
+ * checks if utf-8 bytes are printable text which could be kept in a stub-file as is.
+ * bytes could be passed by chunks, checking stops on the first binary symbol.
+ * <p>
+ * the text is not printable if it's not valid utf-8 or contains control characters
+ * (except whitespaces), unassigned or special characters
+ */
+public final class TextClassifier {
+
+    private static final boolean[] ASCII_TEXT = new boolean[128];
+
+    static {
+        for (char c = 0; c < ASCII_TEXT.length; c++) {
+            ASCII_TEXT[c] = isTextChar(c);
+        }
+    }
+
+    private boolean binary = false;
+    // number of expected continuation bytes of current sequence
+    private int pending = 0;
+    private int codePoint = 0;
+    private int minCodePoint = 0;
+
+    /**
+     * checks the next chunk of data
+     *
+     * @param bytes  data
+     * @param offset offset of the chunk
+     * @param length length of the chunk
+     * @return false if the data is binary, next chunks could be skipped
+     */
+    public boolean update(byte[] bytes, int offset, int length) {
+        int end = offset + length;
+        int i = offset;
+        while (!binary && i < end) {
+            if (pending == 0) {
+                // ascii fast path
+                while (i < end && bytes[i] >= 0) {
+                    if (!ASCII_TEXT[bytes[i]]) {
+                        binary = true;
+                        return false;
+                    }
+                    i++;
+                }
+                if (i < end) {
+                    start(bytes[i++] & 0xFF);
+                }
+            } else {
+                int b = bytes[i++] & 0xFF;
+                if ((b & 0xC0) != 0x80) {
+                    binary = true;
+                } else {
+                    codePoint = (codePoint << 6) | (b & 0x3F);
+                    if (--pending == 0) {
+                        binary = !isTextCodePoint(codePoint, minCodePoint);
+                    }
+                }
+            }
+        }
+        return !binary;
+    }
+
+    /**
+     * @return true if all passed data is text
+     */
+    public boolean isText() {
+        return !binary && pending == 0;
+    }
+
+    /**
+     * checks if utf-8 data is printable text
+     *
+     * @param bytes data
+     * @return true if data is text
+     */
+    public static boolean isText(byte[] bytes) {
+        TextClassifier classifier = new TextClassifier();
+        classifier.update(bytes, 0, bytes.length);
+        return classifier.isText();
+    }
+
+    /**
+     * checks if characters are printable text
+     *
+     * @param chars characters
+     * @return true if all characters are printable
+     */
+    public static boolean isText(CharSequence chars) {
+        for (int i = 0; i < chars.length(); i++) {
+            if (!isTextChar(chars.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void start(int lead) {
+        if (lead >= 0xC2 && lead <= 0xDF) {
+            pending = 1;
+            codePoint = lead & 0x1F;
+            minCodePoint = 0x80;
+        } else if (lead >= 0xE0 && lead <= 0xEF) {
+            pending = 2;
+            codePoint = lead & 0x0F;
+            minCodePoint = 0x800;
+        } else if (lead >= 0xF0 && lead <= 0xF4) {
+            pending = 3;
+            codePoint = lead & 0x07;
+            minCodePoint = 0x10000;
+        } else {
+            binary = true;
+        }
+    }
+
+    private static boolean isTextCodePoint(int codePoint, int minCodePoint) {
+        if (codePoint < minCodePoint
+                || codePoint > Character.MAX_CODE_POINT
+                || (codePoint >= Character.MIN_SURROGATE && codePoint <= Character.MAX_SURROGATE)) {
+            // overlong or invalid sequence
+            return false;
+        }
+        // supplementary characters are kept as surrogate pairs which are printable
+        return codePoint >= Character.MIN_SUPPLEMENTARY_CODE_POINT || isTextChar((char) codePoint);
+    }
+
+    private static boolean isTextChar(char c) {
+        if (Character.isWhitespace(c)) {
+            return true;
+        }
+        Character.UnicodeBlock block = Character.UnicodeBlock.of(c);
+        return block != null &&
+                block != Character.UnicodeBlock.SPECIALS &&
+                c != 0xFFFF &&  //CHAR_UNDEFINED
+                !Character.isISOControl(c);
+    }
+}
@@ -1,60 +1,57 @@
 package org.anystub;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.function.BiFunction;
-
-import static java.util.Arrays.asList;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 
+/**
+ * keeps documents of a stub-file in order of recording for rmTrack mode.
+ * each document is extracted once, documents with the same key are extracted in order of recording
+ */
 public class TrackedDocumentList {
 
-    private final ConcurrentHashMap<List<String>, List<Document>> index = new ConcurrentHashMap<>();
+    private final Map<Document.DocumentKey, Track> index;
 
     public TrackedDocumentList(List<Document> documents) {
+        Map<Document.DocumentKey, List<Document>> grouped = new HashMap<>();
+        documents.forEach(document -> grouped.computeIfAbsent(document.key(), k -> new ArrayList<>()).add(document));
 
-        documents.forEach(document -> index.compute(document.getKey(), new BiWrite(document)));
-
+        Map<Document.DocumentKey, Track> tracks = new HashMap<>(grouped.size() * 4 / 3 + 1);
+        grouped.forEach((key, list) -> tracks.put(key, new Track(list.toArray(new Document[0]))));
+        index = tracks;
     }
 
-    static class BiWrite implements BiFunction<List<String>, List<Document>, List<Document>> {
-        final Document document;
-
-        public BiWrite(Document document) {
-
-            this.document = document;
-        }
+    /**
+     * documents with the same key and the position of the next one
+     */
+    private static class Track {
+        private final Document[] documents;
+        private final AtomicInteger next = new AtomicInteger();
 
-        @Override
-        public List<Document> apply(List<String> key, List<Document> cVal) {
-            if (cVal == null) {
-                return asList(document);
-            }
-            ArrayList<Document> res = new ArrayList<>(cVal);
-            res.add(document);
-            return res;
+        Track(Document[] documents) {
+            this.documents = documents;
         }
 
-
-    }
-
-    static class BiExtract implements BiFunction<List<String>, List<Document>, List<Document>> {
-        private Document res = null;
-
-        @Override
-        public List<Document> apply(List<String> key, List<Document> documents) {
-            if (documents.isEmpty()) {
-                return documents;
-            }
-            res = documents.get(0);
-            return documents.subList(1, documents.size());
+        Document extract() {
+            int i;
+            do {
+                i = next.get();
+                if (i >= documents.length) {
+                    return null;
+                }
+            } while (!next.compareAndSet(i, i + 1));
+            return documents[i];
         }
     }
 
+    /**
+     * @param keys key of the document
+     * @return the next document with the key or null if all of them are extracted
+     */
     public Document extractDocument(String[] keys) {
-
-        BiExtract bi = new BiExtract();
-        index.computeIfPresent(asList(keys), bi);
-        return bi.res;
+        Track track = index.get(Document.DocumentKey.wrap(keys));
+        return track == null ? null : track.extract();
     }
 }
@@ -0,0 +1,61 @@
+package org.anystub;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * tracks stubs with documents which are not written yet.
+ * flushes them by timer and on jvm shutdown
+ */
+final class WriteBehind {
+
+    private static final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "anystub-write-behind");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private static final Set<Base> pending = ConcurrentHashMap.newKeySet();
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(WriteBehind::flushAll, "anystub-flush"));
+    }
+
+    private WriteBehind() {
+    }
+
+    /**
+     * marks the stub as having pending documents, schedules its flush if delay is positive
+     *
+     * @param base        stub with pending documents
+     * @param delayMillis delay before flush, if 0 - no flush is scheduled
+     * @return scheduled flush or null
+     */
+    static ScheduledFuture<?> pending(Base base, long delayMillis) {
+        pending.add(base);
+        if (delayMillis <= 0) {
+            return null;
+        }
+        return scheduler.schedule(base::flush, delayMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * marks the stub as flushed
+     *
+     * @param base flushed stub
+     */
+    static void flushed(Base base) {
+        pending.remove(base);
+    }
+
+    /**
+     * writes pending documents of all stubs
+     */
+    static void flushAll() {
+        pending.forEach(Base::flush);
+    }
+}
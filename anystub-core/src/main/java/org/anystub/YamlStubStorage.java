@@ -0,0 +1,111 @@
+package org.anystub;
+
+import org.yaml.snakeyaml.DumperOptions;
+import org.yaml.snakeyaml.LoaderOptions;
+import org.yaml.snakeyaml.Yaml;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Logger;
+
+/**
+ * keeps documents in a yaml file, a document per yaml-document
+ */
+public class YamlStubStorage implements StubStorage {
+
+    private static final Logger log = Logger.getLogger(YamlStubStorage.class.getName());
+
+    private final String filePath;
+
+    /**
+     * delimiter between last element in existing file and new elements
+     * stub could be manually modified so there could be several possible variants to make the yaml valid
+     * it's calculated on load
+     * resets after the first use
+     */
+    private String firstYamlDelimiter = "";
+
+    public YamlStubStorage(String filePath) {
+        this.filePath = filePath;
+    }
+
+    @Override
+    public List<Document> load() throws IOException {
+        File file = new File(filePath);
+        ArrayList<Document> res = new ArrayList<>();
+        try (InputStream inputStream = new FileInputStream(file);
+             InputStreamReader input = new InputStreamReader(inputStream, StandardCharsets.UTF_8)) {
+            LoaderOptions options = new LoaderOptions();
+
+            Yaml yaml = new Yaml(new DocumentConstructor(options));
+            Iterable<Object> load = yaml.loadAll(input);
+            load.forEach(d -> {
+                if (d instanceof Document) {
+                    res.add((Document) d);
+                }
+            });
+        }
+        if (!res.isEmpty()) {
+            try {
+                firstYamlDelimiter = StringUtil.nextYamlDelimiter(file);
+            } catch (IOException e) {
+                log.severe(() -> String.format("failed to calculate yaml delimiter: %s", e.getMessage()));
+            }
+        }
+        return res;
+    }
+
+    @Override
+    public void save(List<Document> documents, boolean append) throws IOException {
+        try (FileOutputStream out = new FileOutputStream(filePath, append);
+             OutputStreamWriter output = new OutputStreamWriter(out, StandardCharsets.UTF_8)) {
+
+            boolean delimited = append;
+            for (Document document : documents) {
+                if (delimited) {
+                    if (!firstYamlDelimiter.isEmpty()) {
+                        output.append(firstYamlDelimiter);
+                        firstYamlDelimiter = "";
+                    }
+                    output.append("---\n");
+                }
+                dump(document, output);
+                delimited = true;
+            }
+            output.flush();
+        }
+    }
+
+    @Override
+    public void write(List<Document> documents) throws IOException {
+        try (FileOutputStream out = new FileOutputStream(filePath);
+             OutputStreamWriter output = new OutputStreamWriter(out, StandardCharsets.UTF_8)) {
+            for (int i = 0; i < documents.size(); i++) {
+                if (i > 0) {
+                    output.append("---\n");
+                }
+                dump(documents.get(i), output);
+            }
+            output.flush();
+        }
+        firstYamlDelimiter = "";
+    }
+
+    private static void dump(Document document, Writer output) {
+        DumperOptions options = new DumperOptions();
+        options.setExplicitStart(true);
+        options.setExplicitEnd(true);
+
+        Yaml yaml = new Yaml(new DocumentRepresent(options));
+        yaml.dump(document, output);
+    }
+}
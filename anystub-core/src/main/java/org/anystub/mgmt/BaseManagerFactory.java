@@ -60,7 +60,9 @@ public final class BaseManagerFactory {
         }
         return BaseManagerFactory
                 .getBaseManager()
-                .getBase(s.filename(), base -> base.constrain(s.requestMode()));
+                .getBase(s.filename(), base -> base
+                        .configure(s)
+                        .constrain(s.requestMode()));
 
     }
 }
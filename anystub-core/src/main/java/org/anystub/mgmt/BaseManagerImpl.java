@@ -3,14 +3,14 @@ package org.anystub.mgmt;
 import org.anystub.AnyStubFileLocator;
 import org.anystub.AnyStubId;
 import org.anystub.Base;
+import org.anystub.GlobalSettings;
 
 import java.io.File;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Consumer;
 
 public class BaseManagerImpl implements BaseManager {
     private static final BaseManager baseManager = new BaseManagerImpl();
-    private static final ConcurrentHashMap<String, Base> list = new ConcurrentHashMap<>();
+    private static final StubRegistry registry = new StubRegistry(GlobalSettings.globalMaxStubs, GlobalSettings.globalStubsMemory);
     public static final String DEFAULT_STUB_PATH = new File("src/test/resources/anystub/stub.yml").getPath();
     public static final String DEFAULT_PATH = new File("src/test/resources/anystub").getPath();
 
@@ -43,7 +43,9 @@ public class BaseManagerImpl implements BaseManager {
 
     /**
      * returns stub for given filePath,
-     * creates new one if non created before, for every newly created executes initializer
+     * creates new one if non created before, for every newly created executes initializer.
+     * documents of idle stubs are released when limits of the registry are exceeded, see {@link StubRegistry},
+     * so a stub could load its file again
      *
      * @param filename stub-file
      * @param initializer post constructor, invokes only when new base created
@@ -55,7 +57,7 @@ public class BaseManagerImpl implements BaseManager {
                 DEFAULT_STUB_PATH :
                 getFilePath(filename);
 
-        return list.computeIfAbsent(fullPath, p -> {
+        return registry.get(fullPath, p -> {
                 Base base = new Base(fullPath);
                 initializer.accept(base);
                 return base;
@@ -84,7 +86,9 @@ public class BaseManagerImpl implements BaseManager {
     public Base getStub() {
         AnyStubId s = AnyStubFileLocator.discoverFile();
         if (s != null) {
-            return getBase(s.filename(), base -> base.constrain(s.requestMode()));
+            return getBase(s.filename(), base -> base
+                        .configure(s)
+                        .constrain(s.requestMode()));
         }
 
         return getBase();
@@ -94,7 +98,9 @@ public class BaseManagerImpl implements BaseManager {
     public Base getStub(String suffix) {
         AnyStubId s = AnyStubFileLocator.discoverFile(suffix);
         if (s != null) {
-            return getBase(s.filename(), base -> base.constrain(s.requestMode()));
+            return getBase(s.filename(), base -> base
+                        .configure(s)
+                        .constrain(s.requestMode()));
         }
 
         return getBase();
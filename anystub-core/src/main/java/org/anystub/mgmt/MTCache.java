@@ -24,6 +24,7 @@ public class MTCache {
     public static void resetMtFallback() {
         fallbackBase = null;
         fallbackHttpSettings = null;
+        AnyStubFileLocator.reset();
     }
 
     /**
@@ -0,0 +1,107 @@
+package org.anystub.mgmt;
+
+import org.anystub.Base;
+import org.anystub.RequestMode;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * keeps stubs of {@link BaseManagerImpl}, a stub is created once per path.
+ * if limits are set, documents of the least recently used stubs over the limits are released, see {@link Base#unload()}.
+ * such stubs keep their history and settings, they load their files again on the next lookup.
+ * stubs in rmAll and rmTrack modes aren't unloaded: they don't look up documents of their files.
+ * <p>
+ * heap estimates of stubs are refreshed when they are requested from the registry
+ */
+final class StubRegistry {
+
+    private final int maxStubs;
+    private final long heapBudget;
+    private final ConcurrentHashMap<String, Base> stubs = new ConcurrentHashMap<>();
+
+    /**
+     * stubs with loaded documents in order of use, guarded by this
+     */
+    private final LinkedHashMap<String, Kept> recent = new LinkedHashMap<>(16, 0.75f, true);
+    private long heap = 0;
+
+    /**
+     * @param maxStubs   max number of stubs with loaded documents, 0 - no limit
+     * @param heapBudget max estimated heap of loaded documents, 0 - no limit
+     */
+    StubRegistry(int maxStubs, long heapBudget) {
+        this.maxStubs = maxStubs;
+        this.heapBudget = heapBudget;
+    }
+
+    /**
+     * @param path    path of the stub-file
+     * @param factory creates a stub if there is no one for the path
+     * @return the stub for the path
+     */
+    Base get(String path, Function<String, Base> factory) {
+        Base base = stubs.computeIfAbsent(path, factory);
+        if (maxStubs > 0 || heapBudget > 0) {
+            touch(path, base).forEach(Base::unload);
+        }
+        return base;
+    }
+
+    private synchronized List<Base> touch(String path, Base base) {
+        Kept kept = recent.computeIfAbsent(path, p -> new Kept(base));
+        long heapEstimate = base.heapEstimate();
+        heap += heapEstimate - kept.heapEstimate;
+        kept.heapEstimate = heapEstimate;
+
+        List<Base> evicted = new ArrayList<>();
+        Iterator<Kept> iterator = recent.values().iterator();
+        while (overLimits() && iterator.hasNext()) {
+            Kept eldest = iterator.next();
+            if (eldest.base == base || !evictable(eldest.base)) {
+                continue;
+            }
+            iterator.remove();
+            heap -= eldest.heapEstimate;
+            evicted.add(eldest.base);
+        }
+        return evicted;
+    }
+
+    private boolean overLimits() {
+        return (maxStubs > 0 && recent.size() > maxStubs) ||
+                (heapBudget > 0 && heap > heapBudget);
+    }
+
+    private static boolean evictable(Base base) {
+        RequestMode requestMode = base.getRequestMode();
+        return requestMode != RequestMode.rmAll && requestMode != RequestMode.rmTrack;
+    }
+
+    /**
+     * @return number of stubs with loaded documents
+     */
+    synchronized int kept() {
+        return recent.size();
+    }
+
+    /**
+     * @return estimated heap of loaded documents
+     */
+    synchronized long heap() {
+        return heap;
+    }
+
+    private static class Kept {
+        private final Base base;
+        private long heapEstimate = 0;
+
+        Kept(Base base) {
+            this.base = base;
+        }
+    }
+}
@@ -5,6 +5,8 @@ import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
 
 @AnyStubId
 class AnyStubFileLocatorTest {
@@ -34,6 +36,21 @@ class AnyStubFileLocatorTest {
 
     }
 
+    @Test
+    @AnyStubId(filename = "cached")
+    void testCachedCallSite() {
+        AnyStubId first = AnyStubFileLocator.discoverFile();
+        assertSame(first, AnyStubFileLocator.discoverFile());
+
+        java.util.function.Supplier<AnyStubId> fromLambda = AnyStubFileLocator::discoverFile;
+        assertSame(first, fromLambda.get());
+
+        AnyStubFileLocator.reset();
+        AnyStubId second = AnyStubFileLocator.discoverFile();
+        assertNotSame(first, second);
+        assertEquals("cached.yml", second.filename());
+    }
+
     @Test
     void testCombineArrays() {
         String[] strings = AnyStubFileLocator.combineArrays(new String[]{"one"}, new String[]{"one", "two"});
@@ -11,14 +11,19 @@ import java.io.File;
 import java.io.IOException;
 import java.io.Serializable;
 import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Base64;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.Optional;
+import java.util.TreeMap;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.IntStream;
 
@@ -568,4 +573,167 @@ class BaseTest {
 
     }
 
+
+    @Test
+    void testSlowRecordingDoesNotBlockOtherKeys() throws Exception {
+        Base base = new Base("tmp/ConcurrentStub.yml");
+        new File(base.getFilePath()).delete();
+
+        base.request(() -> "fast", "fastKey");
+
+        CompletableFuture<Void> recording = new CompletableFuture<>();
+        CompletableFuture<Void> release = new CompletableFuture<>();
+        CompletableFuture<String> slow = CompletableFuture.supplyAsync(() ->
+                base.request(() -> {
+                    recording.complete(null);
+                    release.join();
+                    return "slow";
+                }, "slowKey"));
+
+        recording.get(5, TimeUnit.SECONDS);
+        String fast = CompletableFuture.supplyAsync(() -> base.request(() -> "other", "fastKey"))
+                .get(5, TimeUnit.SECONDS);
+        assertEquals("fast", fast);
+
+        release.complete(null);
+        assertEquals("slow", slow.get(5, TimeUnit.SECONDS));
+        assertEquals(1, base.times("slowKey"));
+        assertEquals(2, base.times("fastKey"));
+    }
+
+    @Test
+    void testPurgeSideFiles() throws IOException {
+        Base base = BaseManagerFactory.getBaseManager()
+                .getBase("tmp/purgeSideFiles.yml");
+        base.request(() -> "v1", "k1");
+        File body = new File(base.getFilePath() + Base.SIDE_FOLDER_SUFFIX, "body");
+        body.getParentFile().mkdirs();
+        Files.write(body.toPath(), "body".getBytes());
+
+        base.purge();
+        assertFalse(new File(base.getFilePath()).exists());
+        assertFalse(body.getParentFile().exists());
+    }
+
+    @Test
+    void testWriteBehind() throws InterruptedException, IOException {
+        Base base = BaseManagerFactory.getBaseManager()
+                .getBase("tmp/writeBehind.yml");
+        base.purge();
+        base.writeBehind(100, 0);
+
+        for (int i = 0; i < 10; i++) {
+            String value = "v" + i;
+            assertEquals(value, base.request(() -> value, "k" + i));
+        }
+        assertFalse(new File(base.getFilePath()).exists());
+
+        base.flush();
+        Base copy = new Base(base.getFilePath());
+        assertEquals("v9", copy.request("k9"));
+
+        base.request(() -> "v10", "k10");
+        base.clear();
+        assertEquals("v10", base.request("k10"));
+
+        base.writeBehind(100, 10);
+        base.request(() -> "v11", "k11");
+        Path path = new File(base.getFilePath()).toPath();
+        for (int i = 0; i < 200 && !new String(Files.readAllBytes(path)).contains("k11"); i++) {
+            TimeUnit.MILLISECONDS.sleep(10);
+        }
+        assertEquals("v11", new Base(base.getFilePath()).request("k11"));
+    }
+
+    @Test
+    void testRecordDeferred() {
+        Base base = BaseManagerFactory.getBaseManager()
+                .getBase("tmp/recordDeferred.yml");
+        base.purge();
+
+        assertTrue(base.needsLoad());
+        base.init();
+        assertFalse(base.needsLoad());
+
+        assertTrue(base.recordDeferred(new Document(new String[]{"k1"}, new String[]{"v1"})));
+        assertEquals("v1", base.getDocument("k1").get().get());
+        assertEquals(1, base.times("k1"));
+        assertFalse(new File(base.getFilePath()).exists());
+
+        base.flush();
+        assertEquals("v1", new Base(base.getFilePath()).request("k1"));
+
+        base.writeBehind(2, 0);
+        assertFalse(base.recordDeferred(new Document(new String[]{"k2"}, new String[]{"v2"})));
+        assertTrue(base.recordDeferred(new Document(new String[]{"k3"}, new String[]{"v3"})));
+        base.clear();
+        assertTrue(base.needsLoad());
+        assertEquals("v3", base.request("k3"));
+    }
+
+    @Test
+    void testConcurrentUnload() throws InterruptedException {
+        Base base = BaseManagerFactory.getBaseManager()
+                .getBase("tmp/concurrentUnload.yml");
+        base.purge();
+        for (int i = 0; i < 20; i++) {
+            String value = "v" + i;
+            base.request(() -> value, "k" + i);
+        }
+        base.flush();
+
+        AtomicInteger realCalls = new AtomicInteger();
+        AtomicInteger failures = new AtomicInteger();
+        for (RequestMode mode : new RequestMode[]{RequestMode.rmNone, RequestMode.rmNew}) {
+            base.constrain(mode);
+            Thread[] readers = new Thread[4];
+            for (int t = 0; t < readers.length; t++) {
+                readers[t] = new Thread(() -> {
+                    for (int i = 0; i < 5000; i++) {
+                        int k = i % 20;
+                        try {
+                            String value = base.request(() -> {
+                                realCalls.incrementAndGet();
+                                return "real";
+                            }, "k" + k);
+                            if (!value.equals("v" + k)) {
+                                failures.incrementAndGet();
+                            }
+                        } catch (NoSuchElementException e) {
+                            failures.incrementAndGet();
+                        }
+                    }
+                });
+                readers[t].start();
+            }
+            while (readers[0].isAlive()) {
+                base.unload();
+            }
+            for (Thread reader : readers) {
+                reader.join();
+            }
+        }
+
+        assertEquals(0, failures.get());
+        assertEquals(0, realCalls.get());
+    }
+
+    @Test
+    void testFillStackTrace() {
+        Base base = BaseManagerFactory.getBaseManager()
+                .getBase("tmp/fillStackTrace.yml");
+        base.purge();
+        TreeMap<String, Object> document = new TreeMap<>();
+        document.put("keys", "k1");
+        document.put("exception", Arrays.asList("org.anystub.xUnknownException", "msg"));
+        base.put(new Document(document));
+
+        RuntimeException e = Assertions.assertThrows(RuntimeException.class, () -> base.request("k1"));
+        assertTrue(e.getStackTrace().length > 0);
+
+        base.fillStackTrace(false);
+        e = Assertions.assertThrows(RuntimeException.class, () -> base.request("k1"));
+        assertEquals("msg", e.getMessage());
+        assertEquals(0, e.getStackTrace().length);
+    }
 }
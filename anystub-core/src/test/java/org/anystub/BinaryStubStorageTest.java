@@ -0,0 +1,240 @@
+package org.anystub;
+
+import org.anystub.mgmt.BaseManagerFactory;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import static java.util.Arrays.asList;
+import static org.anystub.Document.ars;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BinaryStubStorageTest {
+
+    @Test
+    void testSaveAndLoad() throws IOException {
+        File file = new File("src/test/resources/anystub/tmp/binaryStorage.bin");
+        file.getParentFile().mkdirs();
+        BinaryStubStorage storage = new BinaryStubStorage(file.getPath());
+
+        storage.save(Document.fromArray("k1", "v1"), false);
+        storage.save(new Document(ars("k2", null), ars("Привет", null)), true);
+        storage.save(new Document("k3"), true);
+        storage.save(new Document(new IndexOutOfBoundsException("for test"), "k4"), true);
+
+        List<Document> documents = storage.load();
+        assertEquals(4, documents.size());
+        assertEquals("v1", documents.get(0).get());
+        assertEquals(asList("k2", null), documents.get(1).getKey());
+        assertEquals(asList("Привет", null), documents.get(1).getVals());
+        assertTrue(documents.get(2).isNullValue());
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> documents.get(3).getVals());
+
+        assertEquals("v1", storage.find(asList("k1")).get().get());
+        assertTrue(storage.find(asList("k3")).get().isNullValue());
+        assertFalse(storage.find(asList("k5")).isPresent());
+
+        storage.save(asList(Document.fromArray("k5", "v5"), Document.fromArray("k6", "v6")), true);
+        assertEquals(6, storage.load().size());
+        assertEquals("v6", storage.find(asList("k6")).get().get());
+        assertEquals("v1", storage.find(asList("k1")).get().get());
+
+        storage.save(Document.fromArray("k7", "v7"), false);
+        assertEquals(1, storage.load().size());
+    }
+
+    @Test
+    void testTruncatedTail() throws IOException {
+        File file = new File("src/test/resources/anystub/tmp/binaryTruncated.bin");
+        file.getParentFile().mkdirs();
+        BinaryStubStorage storage = new BinaryStubStorage(file.getPath());
+        storage.save(Document.fromArray("k1", "v1"), false);
+        storage.save(Document.fromArray("k2", "v2"), true);
+
+        byte[] bytes = Files.readAllBytes(file.toPath());
+        Files.write(file.toPath(), Arrays.copyOf(bytes, bytes.length - 10));
+
+        List<Document> documents = storage.load();
+        assertEquals(2, documents.size());
+        Assertions.assertThrows(IOException.class, () -> storage.find(asList("k1")));
+    }
+
+    @Test
+    void testAppendToTornTail() throws IOException {
+        File file = new File("src/test/resources/anystub/tmp/binaryTorn.bin");
+        file.getParentFile().mkdirs();
+        BinaryStubStorage storage = new BinaryStubStorage(file.getPath());
+        storage.save(Document.fromArray("k1", "v1"), false);
+        storage.save(Document.fromArray("k2", "v2"), true);
+        int complete = (int) file.length();
+        storage.save(Document.fromArray("k3", "v3"), true);
+
+        // the index of k3 is torn, its record is complete
+        byte[] bytes = Files.readAllBytes(file.toPath());
+        Files.write(file.toPath(), Arrays.copyOf(bytes, bytes.length - 10));
+        storage.save(Document.fromArray("k4", "v4"), true);
+
+        assertEquals(4, storage.load().size());
+        assertEquals("v1", storage.find(asList("k1")).get().get());
+        assertEquals("v3", storage.find(asList("k3")).get().get());
+        assertEquals("v4", storage.find(asList("k4")).get().get());
+
+        // the record of k5 is torn
+        storage.save(Document.fromArray("k5", "v5"), true);
+        bytes = Files.readAllBytes(file.toPath());
+        Files.write(file.toPath(), Arrays.copyOf(bytes, complete + 3));
+        storage.save(Document.fromArray("k6", "v6"), true);
+
+        List<Document> documents = storage.load();
+        assertEquals(3, documents.size());
+        assertEquals("v6", documents.get(2).get());
+        assertEquals("v2", storage.find(asList("k2")).get().get());
+        assertFalse(storage.find(asList("k3")).isPresent());
+        assertEquals("v6", storage.find(asList("k6")).get().get());
+    }
+
+    @Test
+    void testRecordAfterTornTail() throws IOException {
+        Base base = BaseManagerFactory.getBaseManager()
+                .getBase("tmp/binaryTornStub.bin");
+        base.purge();
+        assertEquals("v1", base.request(() -> "v1", "k1"));
+        assertEquals("v2", base.request(() -> "v2", "k2"));
+
+        File file = new File(base.getFilePath());
+        byte[] bytes = Files.readAllBytes(file.toPath());
+        Files.write(file.toPath(), Arrays.copyOf(bytes, bytes.length - 1));
+
+        base.clear();
+        assertEquals("v1", base.request("k1"));
+        assertEquals("v3", base.request(() -> "v3", "k3"));
+
+        base.clear();
+        assertEquals("v1", base.request("k1"));
+        assertEquals("v2", base.request("k2"));
+        assertEquals("v3", base.request("k3"));
+        assertEquals("v3", new BinaryStubStorage(base.getFilePath()).find(asList("k3")).get().get());
+    }
+
+    @Test
+    void testMissingFile() {
+        BinaryStubStorage storage = new BinaryStubStorage("src/test/resources/anystub/tmp/noSuchStub.bin");
+        Assertions.assertThrows(FileNotFoundException.class, storage::load);
+    }
+
+    @Test
+    void testConvert() throws IOException {
+        String yml = "src/test/resources/anystub/tmp/convertSource.yml";
+        String bin = "src/test/resources/anystub/tmp/convertTarget.bin";
+        String back = "src/test/resources/anystub/tmp/convertBack.yml";
+        new File(yml).getParentFile().mkdirs();
+        StubStorage.forFile(yml).write(asList(
+                Document.fromArray("k1", "v1"),
+                new Document("k2"),
+                new Document(ars("k3", "k3.1"), ars("v3", "v3.1"))));
+
+        assertEquals(3, StubConverter.convert(yml, bin));
+        assertEquals(3, StubConverter.convert(bin, back));
+
+        List<Document> documents = StubStorage.forFile(back).load();
+        assertEquals(3, documents.size());
+        assertEquals("v1", documents.get(0).get());
+        assertNull(documents.get(1).getVals());
+        assertEquals(asList("v3", "v3.1"), documents.get(2).getVals());
+    }
+
+    @Test
+    void testBinaryStub() {
+        Base base = BaseManagerFactory.getBaseManager()
+                .getBase("tmp/binaryStub.bin");
+        base.purge();
+
+        assertEquals("v1", base.request(() -> "v1", "k1"));
+        assertEquals("v2", base.request(() -> "v2", "k2"));
+
+        base.clear();
+        assertEquals("v1", base.request("k1"));
+        assertEquals("v2", base.request("k2"));
+        assertFalse(base.isNew());
+    }
+
+    @Test
+    void testLazyLoad() {
+        Base base = BaseManagerFactory.getBaseManager()
+                .getBase("tmp/lazyStub.bin");
+        base.purge();
+        for (int i = 0; i < 100; i++) {
+            String value = "v" + i;
+            base.request(() -> value, "k" + i);
+        }
+        base.request(() -> null, "empty");
+
+        Base lazy = new Base(base.getFilePath())
+                .lazyLoad(true);
+        assertEquals("v42", lazy.request("k42"));
+        assertEquals("v42", lazy.request("k42"));
+        assertNull(lazy.request("empty"));
+        assertFalse(lazy.isNew());
+        Assertions.assertThrows(NoSuchElementException.class, () -> lazy.request("k100"));
+
+        assertEquals("new", lazy.request(() -> "new", "k101"));
+        lazy.clear();
+        assertEquals("new", lazy.request("k101"));
+        assertEquals("v0", lazy.request("k0"));
+    }
+
+    @Test
+    void testLazyLoadTornTail() throws IOException {
+        Base base = BaseManagerFactory.getBaseManager()
+                .getBase("tmp/lazyTornStub.bin");
+        base.purge();
+        for (int i = 0; i < 3; i++) {
+            String value = "v" + i;
+            base.request(() -> value, "key" + i);
+        }
+
+        File file = new File(base.getFilePath());
+        byte[] bytes = Files.readAllBytes(file.toPath());
+        Files.write(file.toPath(), Arrays.copyOf(bytes, bytes.length - 3));
+
+        Base lazy = new Base(base.getFilePath())
+                .lazyLoad(true);
+        assertEquals("v0", lazy.request("key0"));
+        assertEquals("v1", lazy.request("key1"));
+        // only the index of key2 is torn
+        assertEquals("v2", lazy.request("key2"));
+        assertFalse(lazy.isNew());
+
+        assertEquals("v3", lazy.request(() -> "v3", "key3"));
+        Base copy = new Base(base.getFilePath())
+                .lazyLoad(true);
+        assertEquals("v0", copy.request("key0"));
+        assertEquals("v1", copy.request("key1"));
+        assertEquals("v2", copy.request("key2"));
+        assertEquals("v3", copy.request("key3"));
+    }
+
+    @Test
+    void testNoOverrideAfterFailedLoad() throws IOException {
+        File file = new File("src/test/resources/anystub/tmp/notBinary.bin");
+        file.getParentFile().mkdirs();
+        Files.write(file.toPath(), "not a binary stub-file".getBytes());
+
+        Base base = new Base(file.getPath());
+        base.init();
+        assertFalse(base.isNew());
+        // the file isn't overridden, the append fails
+        base.put(Document.fromArray("k1", "v1"));
+        assertEquals("not a binary stub-file", new String(Files.readAllBytes(file.toPath())));
+    }
+}
@@ -53,6 +53,8 @@ class ConfigFileUtilTest {
                 "test4"
         }, load.requestMask.get());
         Assertions.assertArrayEquals(new String[]{"test1", "test2"}, load.bodyMethods.get());
+        Assertions.assertEquals(HistoryMode.hmRing, load.history);
+        Assertions.assertEquals(50, load.historySize);
 
         load = ConfigFileUtil.load("src/test/resources/test4.yml");
         assertNotNull(load);
@@ -0,0 +1,87 @@
+package org.anystub;
+
+import org.anystub.mgmt.BaseManagerFactory;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.util.Arrays.asList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+
+class DecodedCacheTest {
+
+    /**
+     * decodes values into a list and copies it for every replay
+     */
+    static class ListDecoder implements ReusableDecoder<List<String>> {
+        final AtomicInteger decoded = new AtomicInteger();
+
+        @Override
+        public List<String> decode(Iterable<String> values) {
+            decoded.incrementAndGet();
+            List<String> res = new ArrayList<>();
+            values.forEach(res::add);
+            return res;
+        }
+
+        @Override
+        public List<String> reuse(List<String> decoded) {
+            return new ArrayList<>(decoded);
+        }
+    }
+
+    @Test
+    void testEviction() {
+        DecodedCache cache = new DecodedCache(2);
+        ListDecoder decoder = new ListDecoder();
+        Document a = new Document(new String[]{"a"}, new String[]{"1"});
+        Document b = new Document(new String[]{"b"}, new String[]{"2"});
+        Document c = new Document(new String[]{"c"}, new String[]{"3"});
+
+        List<String> first = cache.get(a, decoder);
+        List<String> second = cache.get(a, decoder);
+        assertEquals(asList("1"), first);
+        assertEquals(first, second);
+        assertNotSame(first, second);
+        assertEquals(1, decoder.decoded.get());
+
+        cache.get(b, decoder);
+        cache.get(a, decoder);
+        cache.get(c, decoder);
+        assertEquals(2, cache.size());
+        assertEquals(3, decoder.decoded.get());
+
+        // b is the least recently used
+        cache.get(a, decoder);
+        assertEquals(3, decoder.decoded.get());
+        cache.get(b, decoder);
+        assertEquals(4, decoder.decoded.get());
+
+        cache.clear();
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void testBaseMemoize() {
+        Base base = BaseManagerFactory.getBaseManager()
+                .getBase("tmp/decodedCache.yml")
+                .memoize(16);
+        base.purge();
+        ListDecoder decoder = new ListDecoder();
+
+        for (int i = 0; i < 3; i++) {
+            List<String> res = base.request2(() -> asList("x", "y"), decoder, list -> list, "key");
+            assertEquals(asList("x", "y"), res);
+            res.clear();
+        }
+        // the first request is recorded, the next ones are replayed
+        assertEquals(2, decoder.decoded.get());
+
+        base.memoize(false);
+        base.request2(() -> asList("x", "y"), decoder, list -> list, "key");
+        assertEquals(3, decoder.decoded.get());
+    }
+}
@@ -144,6 +144,34 @@ class DocumentTest {
         });
     }
 
+    @Test
+    void testexceptionCacheTest() {
+        Document known = new Document(new IllegalStateException("msg"), "123");
+        TreeMap<String, Object> res = new TreeMap<>();
+        res.put("keys", "123");
+        res.put("exception", asList("java.lang.xIllegalStateException", "msg"));
+        Document notFound = new Document(res);
+
+        for (int i = 0; i < 3; i++) {
+            IllegalStateException e = Assertions.assertThrows(IllegalStateException.class, known::getVals);
+            assertEquals("msg", e.getMessage());
+            assertTrue(e.getStackTrace().length > 0);
+
+            RuntimeException r = Assertions.assertThrows(RuntimeException.class, notFound::getVals);
+            assertEquals(RuntimeException.class, r.getClass());
+            assertEquals("msg", r.getMessage());
+            assertTrue(r.getCause() instanceof ClassNotFoundException);
+        }
+
+        RuntimeException r = Assertions.assertThrows(RuntimeException.class, () -> notFound.getVals(false));
+        assertEquals("msg", r.getMessage());
+        assertEquals(0, r.getStackTrace().length);
+        assertTrue(r.getCause() instanceof ClassNotFoundException);
+        // recorded classes are built by their constructor
+        IllegalStateException e = Assertions.assertThrows(IllegalStateException.class, () -> known.getVals(false));
+        assertTrue(e.getStackTrace().length > 0);
+    }
+
     @Test
     void testaroTest() {
         String[] aro = Document.aro("sdf", 2, "ssdf");
@@ -225,5 +253,26 @@ class DocumentTest {
         Assertions.assertEquals(l1,l2);
         Assertions.assertEquals(l1.hashCode(),l2.hashCode());
         Assertions.assertNotEquals(l1,l3);
+        Assertions.assertEquals(asList("123", "321"), l1);
+        Assertions.assertEquals(asList("123", "321").hashCode(), l1.hashCode());
+    }
+
+    @Test
+    void testDocumentKey() {
+        Document.DocumentKey k1 = Document.DocumentKey.of("GET", null, "{\"a\":1}");
+        Document.DocumentKey k2 = new Document.DocumentKey(asList("GET", null, "{\"a\":1}"));
+        Document.DocumentKey k3 = Document.DocumentKey.of("GET", null, "{\"a\":2}");
+
+        Assertions.assertEquals(k1, k2);
+        Assertions.assertEquals(k1.hashCode(), k2.hashCode());
+        Assertions.assertNotEquals(k1, k3);
+        // "Aa" and "BB" have equal String.hashCode
+        Assertions.assertNotEquals(Document.DocumentKey.of("Aa"), Document.DocumentKey.of("BB"));
+        Assertions.assertNotEquals(k1, Document.DocumentKey.of("GET", null));
+
+        Document document = new Document(new String[]{"GET", null, "{\"a\":1}"}, new String[]{"ok"});
+        Assertions.assertSame(document.key(), document.key());
+        Assertions.assertEquals(k1, document.getKey());
+        Assertions.assertTrue(document.keyEqual_to("GET", null, "{\"a\":1}"));
     }
 }
\ No newline at end of file
@@ -0,0 +1,78 @@
+package org.anystub;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class EncoderKeyTest {
+
+    enum Color {
+        RED,
+        GREEN {
+            @Override
+            public String toString() {
+                return "green";
+            }
+        }
+    }
+
+    @Test
+    void testSameAsJson() throws JsonProcessingException {
+        ObjectMapper mapper = ObjectMapperFactory.get();
+        Object[] keys = {
+                1, -7L, (short) 3, (byte) 4, BigInteger.TEN, BigDecimal.valueOf(1, -3), new BigDecimal("0.10"),
+                1.0, 1e20, -0.0, Double.NaN, Double.POSITIVE_INFINITY, 1.5f, Float.NaN,
+                true, false, 'c', '"',
+                Color.RED, Color.GREEN,
+                UUID.fromString("488df912-e7cf-4101-9c2b-0e67a6d66518"),
+                new Date(123),
+                LocalDate.of(2020, 1, 2), LocalDate.of(-5, 12, 31),
+                LocalTime.of(0, 0), LocalTime.of(1, 2, 3), LocalTime.of(1, 2, 0, 7),
+                LocalDateTime.of(2020, 1, 2, 3, 4), LocalDateTime.of(2020, 1, 2, 3, 4, 5),
+                LocalDateTime.of(2020, 1, 2, 3, 4, 0, 7), LocalDateTime.of(2020, 1, 2, 3, 4, 5, 1_000_000),
+                Arrays.asList(1, "a"), new int[]{1, 2}
+        };
+
+        for (Object key : keys) {
+            assertEquals(mapper.writeValueAsString(key), EncoderKey.encode(key), key.toString());
+            assertEquals(mapper.writeValueAsString(key), EncoderKey.encode(key), key.toString());
+        }
+        assertEquals("text", EncoderKey.encode("text"));
+        assertNull(EncoderKey.encode(null));
+    }
+
+    @Test
+    void testToArray() {
+        assertArrayEquals(new String[]{"a", null, "1", "\"RED\""}, StringUtil.toArray("a", null, 1, Color.RED));
+    }
+
+    static class Point {
+        final int x;
+        final int y;
+
+        Point(int x, int y) {
+            this.x = x;
+            this.y = y;
+        }
+    }
+
+    @Test
+    void testRegister() {
+        EncoderKey.register(Point.class, p -> p.x + ":" + p.y);
+
+        assertEquals("1:2", EncoderKey.encode(new Point(1, 2)));
+    }
+}
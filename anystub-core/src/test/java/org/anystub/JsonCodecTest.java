@@ -0,0 +1,90 @@
+package org.anystub;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import org.anystub.mgmt.BaseManagerFactory;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JsonCodecTest {
+
+    @Test
+    void testCodecs() {
+        assertSame(JsonCodec.forClass(Map.class), JsonCodec.forClass(Map.class));
+        assertSame(JsonCodec.forType(new TypeReference<List<Integer>>() {
+        }), JsonCodec.forType(new TypeReference<List<Integer>>() {
+        }));
+
+        JsonCodec<List<Integer>> codec = JsonCodec.forType(new TypeReference<List<Integer>>() {
+        });
+        assertEquals(singletonList("[1,2]"), codec.encode(asList(1, 2)));
+        assertEquals(asList(1, 2), codec.decode(singletonList("[1,2]")));
+        assertNull(codec.decode(singletonList("{")));
+        assertNull(codec.encode(null));
+
+        assertThrows(TypeNotPresentException.class, () -> JsonCodec.forClass(Map.class).decode(singletonList("[")));
+    }
+
+    @Test
+    void testMemoize() {
+        Base base = BaseManagerFactory.getBaseManager()
+                .getBase("tmp/memoize.yml");
+        base.clear();
+
+        List<Integer> first = base.request(() -> asList(1, 2), new TypeReference<List<Integer>>() {
+        }, "list");
+        List<Integer> second = base.request(() -> asList(1, 2), new TypeReference<List<Integer>>() {
+        }, "list");
+        assertEquals(asList(1, 2), first);
+        assertEquals(first, second);
+        assertNotSame(first, second);
+
+        base.memoize(true);
+        first = base.request(() -> asList(1, 2), new TypeReference<List<Integer>>() {
+        }, "list");
+        second = base.request(() -> asList(1, 2), new TypeReference<List<Integer>>() {
+        }, "list");
+        // mutable responses aren't shared
+        assertEquals(first, second);
+        assertNotSame(first, second);
+
+        LocalDate date = base.request(() -> LocalDate.of(2020, 1, 2), LocalDate.class, "date");
+        assertSame(base.request(() -> LocalDate.of(2020, 1, 2), LocalDate.class, "date"),
+                base.request(() -> LocalDate.of(2020, 1, 2), LocalDate.class, "date"));
+        assertEquals(LocalDate.of(2020, 1, 2), date);
+
+        Map<?, ?> map = base.request(() -> null, Map.class, "map");
+        assertNull(map);
+        assertEquals(8, base.times());
+    }
+
+    @Test
+    void testImmutable() {
+        assertTrue(JsonCodec.immutable(String.class));
+        assertTrue(JsonCodec.immutable(Integer.class));
+        assertTrue(JsonCodec.immutable(BigDecimal.class));
+        assertTrue(JsonCodec.immutable(RequestMode.class));
+        assertTrue(JsonCodec.immutable(LocalDate.class));
+        assertFalse(JsonCodec.immutable(List.class));
+        assertFalse(JsonCodec.immutable(Date.class));
+        assertFalse(JsonCodec.immutable(int[].class));
+
+        assertFalse(JsonCodec.forType(new TypeReference<List<Integer>>() {
+        }) instanceof ReusableDecoder);
+        assertTrue(JsonCodec.forClass(LocalDate.class) instanceof ReusableDecoder);
+    }
+}
@@ -0,0 +1,80 @@
+package org.anystub;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.Collectors;
+
+import static java.util.Arrays.stream;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class MaskEngineTest {
+
+    private static final String[] INPUTS = {
+            "",
+            "nothing to mask",
+            "password: 1234567, login: admin",
+            "{\"secret\":\"abc\",\"token\":\"t-1\",\"date\":\"2024-01-02\"}",
+            "test1 test test3 secretsecret",
+            "...x ... xx",
+            "xaax xbbx",
+    };
+
+    private static final String[][] MASKS = {
+            {"test1"},
+            {"t.*s"},
+            {"secret", "password: .{2,10}\\,"},
+            {"secret", "\\d{4}-\\d{1,2}-\\d{1,2}"},
+            {"token\":\"[^\"]*\"", "ab?c"},
+            {"(?i)SECRET", "x"},
+            {"(a)\\1", "test"},
+            {"test", "(?<c>b)\\k<c>"},
+            {"\\.\\.\\.x", "xx"},
+    };
+
+    @Test
+    void testSameAsReplaceAll() {
+        for (String[] masks : MASKS) {
+            MaskEngine engine = MaskEngine.of(masks);
+            for (String input : INPUTS) {
+                String expectedKey = stream(masks)
+                        .reduce(input, (r, m) -> r.replaceAll(m, "..."));
+                assertEquals(expectedKey, engine.maskKey(input), String.join(",", masks) + " : " + input);
+
+                String combined = masks.length > 1 ?
+                        stream(masks).map(r -> String.format("(%s)", r)).collect(Collectors.joining("|")) :
+                        masks[0];
+                if (stream(masks).noneMatch(m -> m.contains("\\1") || m.contains("\\k<"))) {
+                    assertEquals(input.replaceAll(combined, "..."), engine.maskBody(input), String.join(",", masks) + " : " + input);
+                }
+            }
+        }
+    }
+
+    @Test
+    void testBackReference() {
+        MaskEngine engine = MaskEngine.of(new String[]{"(a)\\1", "test"});
+        assertEquals("x...x", engine.maskKey("xaax"));
+        assertEquals("x...x ...", engine.maskBody("xaax test"));
+        assertEquals("x...x", MaskEngine.of(new String[]{"test", "(?<c>b)\\k<c>"}).maskKey("xbbx"));
+    }
+
+    @Test
+    void testLiteralPrefix() {
+        assertEquals("password: ", MaskEngine.literalPrefix("password: .{2,10}\\,"));
+        assertEquals("test", MaskEngine.literalPrefix("test1?"));
+        assertEquals("a.b", MaskEngine.literalPrefix("a\\.b\\d"));
+        assertEquals("", MaskEngine.literalPrefix("(?i)secret"));
+        assertEquals("", MaskEngine.literalPrefix("secret|token"));
+        assertEquals("", MaskEngine.literalPrefix("\\d{4}"));
+    }
+
+    @Test
+    void testCachedAndEmpty() {
+        assertSame(MaskEngine.of(new String[]{"a", "b"}), MaskEngine.of(new String[]{"a", "b"}));
+        String[] keys = {"a", null};
+        assertSame(keys, MaskEngine.of(new String[0]).maskKeys(keys));
+        assertArrayEquals(new String[]{"...", null}, MaskEngine.of(new String[]{"a"}).maskKeys(keys));
+    }
+}
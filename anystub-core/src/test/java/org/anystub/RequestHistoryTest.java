@@ -0,0 +1,169 @@
+package org.anystub;
+
+import org.anystub.mgmt.BaseManagerFactory;
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.Collectors;
+
+import static java.util.Arrays.asList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class RequestHistoryTest {
+
+    @Test
+    void testCount() {
+        RequestHistory history = RequestHistory.of(HistoryMode.hmFull, 0);
+        history.add(new Document(new String[]{"GET", "/a", "body"}, new String[]{"1"}));
+        history.add(new Document(new String[]{"GET", "/b"}, new String[]{"2"}));
+        history.add(new Document(new String[]{"POST", "/a", null}, new String[]{"3"}));
+
+        assertEquals(3, history.count());
+        assertEquals(2, history.count("GET"));
+        assertEquals(1, history.count("GET", "/a"));
+        assertEquals(2, history.count(null, "/a"));
+        assertEquals(3, history.count(null, null));
+        assertEquals(2, history.count(null, null, null));
+        assertEquals(0, history.count(null, null, null, null));
+        assertEquals(0, history.count("PUT"));
+
+        history.add(new Document(new String[]{"GET", "/a"}, new String[]{"4"}));
+        assertEquals(2, history.count("GET", "/a"));
+        assertEquals(4, history.stream().count());
+
+        history.clear();
+        assertEquals(0, history.count());
+        assertEquals(0, history.count("GET"));
+    }
+
+    @Test
+    void testCountEx() {
+        RequestHistory history = RequestHistory.of(HistoryMode.hmFull, 0);
+        history.add(new Document(new String[]{"GET", "/a/1"}, new String[]{"ok"}));
+        history.add(new Document(new String[]{"GET", "/a/2"}, new String[]{"fail"}));
+        history.add(new Document(new String[]{"GET", "/b/1"}, new String[]{"ok"}));
+
+        assertEquals(2, history.countEx("GET", "/a/.*"));
+        assertEquals(3, history.countEx(null, ".*/\\d"));
+        assertEquals(3, history.countEx());
+        assertEquals(1, history.countEx(new String[]{"GET", "/a/.*"}, new String[]{"ok"}));
+    }
+
+    @Test
+    void testRing() {
+        RequestHistory history = RequestHistory.of(HistoryMode.hmRing, 2);
+        history.add(new Document(new String[]{"GET", "/a"}, new String[]{"1"}));
+        history.add(new Document(new String[]{"GET", "/b"}, new String[]{"2"}));
+        history.add(new Document(new String[]{"GET", "/c"}, new String[]{"3"}));
+
+        assertEquals(asList("/b", "/c"), history.stream().map(d -> d.getKey(1)).collect(Collectors.toList()));
+        assertEquals(2, history.count("GET"));
+        assertEquals(0, history.count("GET", "/a"));
+        assertEquals(1, history.countEx(null, "/[a-b]"));
+
+        history.clear();
+        assertEquals(0, history.count());
+    }
+
+    @Test
+    void testCounters() {
+        RequestHistory history = RequestHistory.of(HistoryMode.hmCounters, 0);
+        history.add(new Document(new String[]{"GET", "/a"}, new String[]{"1"}));
+        history.add(new Document(new String[]{"GET", "/a"}, new String[]{"1"}));
+        history.add(new Document(new String[]{"GET", "/b"}, new String[]{"2"}));
+
+        assertEquals(0, history.stream().count());
+        assertEquals(3, history.count());
+        assertEquals(2, history.count(null, "/a"));
+        assertEquals(3, history.countEx("GET", "/.*"));
+        assertEquals(1, history.countEx(new String[]{"GET"}, new String[]{"2"}));
+    }
+
+    @Test
+    void testOff() {
+        RequestHistory history = RequestHistory.of(HistoryMode.hmOff, 0);
+        history.add(new Document(new String[]{"GET", "/a"}, new String[]{"1"}));
+
+        assertEquals(0, history.stream().count());
+        assertEquals(0, history.count());
+        assertEquals(0, history.countEx("GET"));
+    }
+
+    @Test
+    void testBaseHistory() {
+        Base base = BaseManagerFactory.getBaseManager()
+                .getBase("tmp/historyMode.yml")
+                .history(HistoryMode.hmCounters, 0);
+        base.purge();
+        base.put(new Document(new String[]{"k1"}, new String[]{"v1"}));
+
+        assertEquals("v1", base.request("k1"));
+        assertEquals("v1", base.request("k1"));
+        assertEquals(2, base.times("k1"));
+        assertEquals(0, base.history().count());
+    }
+
+    @Test
+    void testPartitioned() throws InterruptedException {
+        HistoryPartition.clear();
+        RequestHistory history = RequestHistory.partitioned(HistoryMode.hmFull, 0);
+        Document document = new Document(new String[]{"GET", "/a"}, new String[]{"1"});
+        history.add(document);
+
+        long[] counts = new long[2];
+        Thread other = new Thread(() -> {
+            history.add(document);
+            history.add(document);
+            counts[0] = history.count("GET");
+            HistoryPartition.set("test");
+            history.add(document);
+            counts[1] = history.count("GET");
+        });
+        other.start();
+        other.join();
+
+        assertEquals(2, counts[0]);
+        assertEquals(1, counts[1]);
+        assertEquals(1, history.count("GET"));
+        assertEquals(1, history.stream().count());
+
+        HistoryPartition.set("test");
+        try {
+            history.add(document);
+            assertEquals(2, history.count());
+        } finally {
+            HistoryPartition.clear();
+        }
+
+        history.clear();
+        assertEquals(0, history.count());
+        history.add(document);
+        assertEquals(1, history.count());
+    }
+
+    @Test
+    void testDiscoveredPartition() throws InterruptedException {
+        HistoryPartition.clear();
+        Object test = new Object();
+        HistoryPartition.discovered(test);
+        assertSame(test, HistoryPartition.current());
+
+        Object[] inherited = new Object[1];
+        Thread child = new Thread(() -> {
+            HistoryPartition.undiscovered();
+            inherited[0] = HistoryPartition.current();
+        });
+        child.start();
+        child.join();
+        assertSame(test, inherited[0]);
+
+        // the test is over when its thread discovers no test
+        HistoryPartition.undiscovered();
+        assertSame(Thread.currentThread(), HistoryPartition.current());
+
+        HistoryPartition.set("explicit");
+        HistoryPartition.undiscovered();
+        assertEquals("explicit", HistoryPartition.current());
+        HistoryPartition.clear();
+    }
+}
@@ -44,6 +44,11 @@ class StringUtilTest {
         String s = StringUtil.toCharacterString(stringReader);
         Assertions.assertEquals("test", s);
 
+        s = StringUtil.toCharacterString(new StringReader("Привет"));
+        Assertions.assertEquals("Привет", s);
+
+        s = StringUtil.toCharacterString(new StringReader("body hex" + (char) 2));
+        Assertions.assertEquals("BASE64 Ym9keSBoZXgC", s);
     }
 
     @Test
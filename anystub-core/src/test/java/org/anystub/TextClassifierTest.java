@@ -0,0 +1,76 @@
+package org.anystub;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TextClassifierTest {
+
+    @Test
+    void testText() {
+        assertTrue(TextClassifier.isText(new byte[0]));
+        assertTrue(TextClassifier.isText("{\"key\": \"value\"}\r\n\t".getBytes(StandardCharsets.UTF_8)));
+        assertTrue(TextClassifier.isText("Привет, 世界 😀".getBytes(StandardCharsets.UTF_8)));
+
+        assertFalse(TextClassifier.isText(new byte[]{'a', 0}));
+        assertFalse(TextClassifier.isText(new byte[]{'a', 0x7F}));
+        assertFalse(TextClassifier.isText("�".getBytes(StandardCharsets.UTF_8)));
+        // truncated, overlong and surrogate sequences
+        assertFalse(TextClassifier.isText(new byte[]{(byte) 0xD0}));
+        assertFalse(TextClassifier.isText(new byte[]{(byte) 0xC0, (byte) 0x80}));
+        assertFalse(TextClassifier.isText(new byte[]{(byte) 0xED, (byte) 0xA0, (byte) 0x80}));
+    }
+
+    @Test
+    void testChunks() {
+        byte[] bytes = "Привет".getBytes(StandardCharsets.UTF_8);
+        TextClassifier classifier = new TextClassifier();
+
+        assertTrue(classifier.update(bytes, 0, 3));
+        assertFalse(classifier.isText());
+        assertTrue(classifier.update(bytes, 3, bytes.length - 3));
+        assertTrue(classifier.isText());
+
+        assertFalse(classifier.update(new byte[]{1}, 0, 1));
+        assertFalse(classifier.update(bytes, 0, bytes.length));
+        assertFalse(classifier.isText());
+    }
+
+    @Test
+    void testSameAsDecodedCheck() {
+        Random random = new Random(7);
+        for (int n = 0; n < 20000; n++) {
+            byte[] bytes = new byte[random.nextInt(6)];
+            random.nextBytes(bytes);
+            assertEquals(decodedIsText(bytes), TextClassifier.isText(bytes), Arrays.toString(bytes));
+        }
+        for (int c = 0; c <= Character.MAX_CODE_POINT; c += 7) {
+            if (c >= Character.MIN_SURROGATE && c <= Character.MAX_SURROGATE) {
+                continue;
+            }
+            byte[] bytes = new String(Character.toChars(c)).getBytes(StandardCharsets.UTF_8);
+            assertEquals(decodedIsText(bytes), TextClassifier.isText(bytes), Integer.toHexString(c));
+        }
+    }
+
+    private static boolean decodedIsText(byte[] bytes) {
+        for (char c : new String(bytes, StandardCharsets.UTF_8).toCharArray()) {
+            if (Character.isWhitespace(c)) {
+                continue;
+            }
+            Character.UnicodeBlock block = Character.UnicodeBlock.of(c);
+            if (block == null ||
+                    block == Character.UnicodeBlock.SPECIALS ||
+                    Character.isISOControl(c)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -2,6 +2,11 @@ package org.anystub;
 
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
 import static java.util.Arrays.asList;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNull;
@@ -44,4 +49,30 @@ class TrackedDocumentListTest {
         assertNull(document);
     }
 
-}
\ No newline at end of file
+    @Test
+    void testConcurrentFetch() throws InterruptedException {
+        List<Document> documents = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            documents.add(Document.fromArray("next", Integer.toString(i)));
+        }
+        TrackedDocumentList list = new TrackedDocumentList(documents);
+
+        Set<String> extracted = ConcurrentHashMap.newKeySet();
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            threads[t] = new Thread(() -> {
+                Document document;
+                while ((document = list.extractDocument(new String[]{"next"})) != null) {
+                    extracted.add(document.get());
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(1000, extracted.size());
+        assertNull(list.extractDocument(new String[]{"next"}));
+    }
+}
@@ -0,0 +1,106 @@
+package org.anystub.mgmt;
+
+import org.anystub.Base;
+import org.anystub.Document;
+import org.anystub.RequestMode;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StubRegistryTest {
+
+    private static String path(String name) {
+        return BaseManagerImpl.getFilePath("tmp/registry/" + name + ".yml");
+    }
+
+    @Test
+    void testMaxStubs() {
+        StubRegistry registry = new StubRegistry(2, 0);
+        Base a = registry.get(path("a"), Base::new);
+        Base b = registry.get(path("b"), Base::new);
+        assertSame(a, registry.get(path("a"), Base::new));
+        assertEquals(2, registry.kept());
+
+        Base c = registry.get(path("c"), Base::new);
+        assertEquals(2, registry.kept());
+
+        // documents of b are released, the stub stays the same
+        assertSame(b, registry.get(path("b"), Base::new));
+        assertSame(c, registry.get(path("c"), Base::new));
+    }
+
+    @Test
+    void testNoLimits() {
+        StubRegistry registry = new StubRegistry(0, 0);
+        Base a = registry.get(path("noLimitA"), Base::new);
+        registry.get(path("noLimitB"), Base::new);
+        assertSame(a, registry.get(path("noLimitA"), Base::new));
+        assertEquals(0, registry.kept());
+    }
+
+    @Test
+    void testHistorySurvivesEviction() {
+        StubRegistry registry = new StubRegistry(1, 0);
+        Base a = registry.get(path("historyA"), Base::new);
+        a.purge();
+        assertEquals("value", a.request(() -> "value", "key"));
+        assertTrue(a.heapEstimate() > 0);
+
+        registry.get(path("historyB"), Base::new);
+        assertEquals(0, a.heapEstimate());
+        assertEquals(1, a.times("key"));
+
+        Base same = registry.get(path("historyA"), Base::new);
+        assertSame(a, same);
+        // the document is loaded again from the file
+        assertEquals("value", same.request(() -> {
+            throw new IllegalStateException("no recording expected");
+        }, "key"));
+        assertEquals(2, same.times("key"));
+        a.purge();
+    }
+
+    @Test
+    void testHeapBudget() {
+        StubRegistry registry = new StubRegistry(0, 1000);
+        Base a = registry.get(path("heapA"), p -> new Base(p).writeBehind(100, 0));
+        a.purge();
+        a.put(new Document(new String[]{"key"}, new String[]{"v".repeat(600)}));
+        assertTrue(a.heapEstimate() > 1000);
+        assertFalse(new File(path("heapA")).exists());
+
+        registry.get(path("heapA"), Base::new);
+        assertEquals(1, registry.kept());
+        assertEquals(a.heapEstimate(), registry.heap());
+
+        registry.get(path("heapB"), Base::new);
+        assertEquals(1, registry.kept());
+        assertEquals(0, registry.heap());
+        // pending documents of an unloaded stub are written
+        assertTrue(new File(path("heapA")).exists());
+        assertEquals(0, a.heapEstimate());
+
+        assertEquals("v".repeat(600), a.request("key"));
+        a.purge();
+        assertEquals(0, a.heapEstimate());
+    }
+
+    @Test
+    void testPinned() {
+        StubRegistry registry = new StubRegistry(1, 0);
+        Base all = registry.get(path("all"), p -> new Base(p).constrain(RequestMode.rmAll));
+        registry.get(path("other"), Base::new);
+        assertEquals(2, registry.kept());
+
+        Base other = registry.get(path("another"), Base::new);
+        assertEquals(2, registry.kept());
+        assertSame(all, registry.get(path("all"), Base::new));
+        assertNotSame(all, other);
+    }
+}
@@ -1,16 +1,17 @@
 package org.anystub;
 
-import java.util.Arrays;
 import java.util.List;
 import java.util.Objects;
 
 class QueryKey {
-    String filename;
-    List<String> keys;
+    final String filename;
+    final Document.DocumentKey keys;
+    private final int hash;
 
     public QueryKey(String filename, List<String> keys) {
         this.filename = filename;
-        this.keys = keys;
+        this.keys = new Document.DocumentKey(keys);
+        this.hash = 31 * Objects.hashCode(filename) + this.keys.hashCode();
     }
 
     @Override
@@ -20,14 +21,13 @@ class QueryKey {
 
         QueryKey queryKey = (QueryKey) o;
 
+        if (hash != queryKey.hash) return false;
         if (!Objects.equals(filename, queryKey.filename)) return false;
         return keys.equals(queryKey.keys);
     }
 
     @Override
     public int hashCode() {
-        int result = filename != null ? filename.hashCode() : 0;
-        result = 31 * result + (keys != null ? Arrays.hashCode(keys.toArray(new String[0])) : 0);
-        return result;
+        return hash;
     }
 }
@@ -0,0 +1,112 @@
+package org.anystub;
+
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * non-blocking counterpart of {@link Base#request2(Supplier, Decoder, Inverter, KeysSupplier)} for reactive clients.
+ * <p>
+ * replaying from a loaded stub doesn't block, loading of the stub-file and writing recorded documents
+ * is moved to the io-scheduler, recorded documents are written with the next flush of the stub
+ */
+public final class ReactiveBase {
+
+    private static volatile Scheduler ioScheduler = Schedulers.boundedElastic();
+
+    private ReactiveBase() {
+    }
+
+    /**
+     * sets the scheduler for blocking file operations
+     *
+     * @param scheduler scheduler to load and flush stub-files, boundedElastic by default
+     */
+    public static void setIoScheduler(Scheduler scheduler) {
+        ioScheduler = scheduler;
+    }
+
+    /**
+     * requests an object from the stub, if the stub doesn't contain the document
+     * it requests the source system and records the response
+     *
+     * @param base     stub
+     * @param supplier requests the source system
+     * @param decoder  creates an object from recorded values
+     * @param encoder  extracts values from an object of the source system
+     * @param keyGen   keys of the request
+     * @param <T>      type of requested object
+     * @return object from the stub or the source system
+     */
+    public static <T> Mono<T> requestAsync(Base base,
+                                           java.util.function.Supplier<Mono<T>> supplier,
+                                           Decoder<T> decoder,
+                                           Function<T, Mono<Iterable<String>>> encoder,
+                                           KeysSupplier keyGen) {
+        if (base.isPassThrough()) {
+            return Mono.defer(supplier);
+        }
+        KeysSupplier keyGenCashed = new KeysSupplierCashed(keyGen);
+
+        if (base.isTrackCache()) {
+            // documents of track mode are extracted in order, so they go through the blocking path
+            return Mono.defer(() -> base.request2(supplier::get,
+                    values -> Mono.justOrEmpty(decoder.decode(values)),
+                    (Mono<T> mono, BiFunction<Iterable<String>, Throwable, Mono<T>> decoderFunction) ->
+                            mono.flatMap(encoder)
+                                    .flatMap(values -> decoderFunction.apply(values, null))
+                                    .doOnError(throwable -> decoderFunction.apply(null, throwable)),
+                    keyGenCashed));
+        }
+
+        if (!base.seekInCache()) {
+            return record(base, supplier, decoder, encoder, keyGenCashed);
+        }
+
+        Mono<Void> loaded = base.needsLoad() ?
+                Mono.<Void>fromRunnable(base::init).subscribeOn(ioScheduler) :
+                Mono.empty();
+
+        return loaded.then(Mono.defer(() -> {
+            Optional<Document> storedDocument = base.getDocument(keyGenCashed.get());
+            if (storedDocument.isPresent()) {
+                return Mono.fromSupplier(() -> base.replay(storedDocument.get(), decoder));
+            }
+            return record(base, supplier, decoder, encoder, keyGenCashed);
+        }));
+    }
+
+    private static <T> Mono<T> record(Base base,
+                                      java.util.function.Supplier<Mono<T>> supplier,
+                                      Decoder<T> decoder,
+                                      Function<T, Mono<Iterable<String>>> encoder,
+                                      KeysSupplier keyGenCashed) {
+        if (!base.writeInCache()) {
+            return Mono.error(new NoSuchElementException(Arrays.toString(keyGenCashed.get())));
+        }
+        return Mono.defer(supplier)
+                .flatMap(encoder)
+                .map(responseData -> {
+                    List<String> values = new ArrayList<>();
+                    responseData.forEach(values::add);
+                    save(base, new Document(keyGenCashed.get(), values.toArray(new String[0])));
+                    return decoder.decode(values);
+                })
+                .switchIfEmpty(Mono.fromRunnable(() -> save(base, new Document(keyGenCashed.get()))))
+                .doOnError(ex -> save(base, new Document(ex, keyGenCashed.get())));
+    }
+
+    private static void save(Base base, Document document) {
+        if (base.recordDeferred(document)) {
+            ioScheduler.schedule(base::flush);
+        }
+    }
+}
@@ -2,27 +2,149 @@ package org.anystub;
 
 import reactor.core.publisher.Mono;
 
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
 
 
 /**
  * keeps cache of running requests
  * if the same request comes in non-blocking mode it will be reverted to
  * key in the map is composite - stub-filename+all+fields
+ * <p>
+ * a request is removed when it completes, so the next one replays the recorded document.
+ * the cache is bounded by size and by time a request is kept
  */
-public class  RequestCache<T> {
+public class RequestCache<T> {
 
+    public static final int DEFAULT_MAX_SIZE = 1024;
+    public static final long DEFAULT_TTL_MILLIS = 60_000;
 
+    private final ConcurrentMap<QueryKey, Entry> m = new ConcurrentHashMap<>();
+    private final int maxSize;
+    private final long ttlNanos;
 
-    private ConcurrentMap<QueryKey, Mono<T>> m = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public RequestCache() {
+        this(DEFAULT_MAX_SIZE, DEFAULT_TTL_MILLIS);
+    }
+
+    /**
+     * @param maxSize   max number of kept requests
+     * @param ttlMillis max time to keep a request which is not completed
+     */
+    public RequestCache(int maxSize, long ttlMillis) {
+        this.maxSize = maxSize;
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+    }
 
     public Mono<T> track(Base base, List<String> key, Mono<T> candidate) {
         if (!base.seekInCache()) {
             return candidate;
         }
-        return m.computeIfAbsent(new QueryKey(base.getFilePath(), key), tk -> candidate);
+        QueryKey queryKey = new QueryKey(base.getFilePath(), key);
+        long now = System.nanoTime();
+
+        Entry entry = m.get(queryKey);
+        if (entry != null && !entry.expired(now)) {
+            hits.increment();
+            return entry.mono;
+        }
+
+        Entry created = new Entry(now);
+        created.mono = candidate.doFinally(signal -> m.remove(queryKey, created));
+        Entry tracked = m.compute(queryKey, (k, existing) -> {
+            if (existing != null && !existing.expired(now)) {
+                return existing;
+            }
+            if (existing != null) {
+                evictions.increment();
+            }
+            return created;
+        });
+        if (tracked != created) {
+            hits.increment();
+            return tracked.mono;
+        }
+        misses.increment();
+        if (m.size() > maxSize) {
+            evict(now);
+        }
+        return created.mono;
+    }
+
+    /**
+     * removes expired requests, if the cache is still full removes the oldest ones
+     */
+    private void evict(long now) {
+        for (Iterator<Map.Entry<QueryKey, Entry>> it = m.entrySet().iterator(); it.hasNext(); ) {
+            if (it.next().getValue().expired(now)) {
+                it.remove();
+                evictions.increment();
+            }
+        }
+        while (m.size() > maxSize) {
+            Map.Entry<QueryKey, Entry> oldest = null;
+            for (Map.Entry<QueryKey, Entry> e : m.entrySet()) {
+                if (oldest == null || e.getValue().created - oldest.getValue().created < 0) {
+                    oldest = e;
+                }
+            }
+            if (oldest == null) {
+                return;
+            }
+            if (m.remove(oldest.getKey(), oldest.getValue())) {
+                evictions.increment();
+            }
+        }
+    }
+
+    /**
+     * @return number of requests which joined a running one
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * @return number of requests which were started
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * @return number of requests removed by size or time limit
+     */
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    /**
+     * @return number of running requests
+     */
+    public int size() {
+        return m.size();
+    }
+
+    private class Entry {
+        private final long created;
+        private Mono<T> mono;
+
+        Entry(long created) {
+            this.created = created;
+        }
+
+        boolean expired(long now) {
+            return now - created >= ttlNanos;
+        }
     }
 
 }
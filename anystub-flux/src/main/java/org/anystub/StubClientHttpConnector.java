@@ -61,16 +61,10 @@ public class StubClientHttpConnector implements ClientHttpConnector {
 
                             Base base = extractBase(ctx);
 
-                            Mono<ClientHttpResponse> candidate = base.request2(() -> real.connect(method, uri, requestCallback),
-                                    (Iterable<String> iterable) -> Mono.just(decode(iterable)),
-
-                                    (clientHttpResponseMono, decoderFunction) ->
-                                            clientHttpResponseMono
-                                                    .flatMap((ClientHttpResponse response) ->
-                                                            encode(response))
-                                                    .flatMap((Iterable<String> strings) ->
-                                                            decoderFunction.apply(strings, null))
-                                                    .doOnError(throwable -> decoderFunction.apply(null, throwable)),
+                            Mono<ClientHttpResponse> candidate = ReactiveBase.requestAsync(base,
+                                    () -> real.connect(method, uri, requestCallback),
+                                    StubClientHttpConnector::decode,
+                                    StubClientHttpConnector::encode,
                                     new KeysSupplier() {
                                         @Override
                                         public String[] get() {
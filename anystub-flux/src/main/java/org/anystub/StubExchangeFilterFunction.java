@@ -20,7 +20,6 @@ import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
-import java.util.function.BiFunction;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -57,26 +56,16 @@ public class StubExchangeFilterFunction implements ExchangeFilterFunction {
                         Mono.deferContextual(ctx -> {
                             Base base = extractBase(ctx);
 
-                            Mono<ClientResponse> candidate = base.request2(
+                            Mono<ClientResponse> candidate = ReactiveBase.requestAsync(base,
                                     () -> next.exchange(request),
-                                    values -> Mono.just(decode(values)),
-                                    new Inverter<Mono<ClientResponse>>() {
-                                        @Override
-                                        public Mono<ClientResponse> invert(Mono<ClientResponse> clientResponseMono, BiFunction<Iterable<String>, Throwable, Mono<ClientResponse>> decoderFunction) {
-                                            return clientResponseMono
-                                                    .flatMap((ClientResponse clientResponse) -> encode(clientResponse))
-                                                    .flatMap((Iterable<String> strings) -> decoderFunction.apply(strings, null))
-                                                    .doOnError(throwable -> decoderFunction.apply(null, throwable));
-
-                                        }
-                                    },
+                                    StubExchangeFilterFunction::decode,
+                                    StubExchangeFilterFunction::encode,
                                     new KeysSupplier() {
                                         @Override
                                         public String[] get() {
                                             return key.toArray(new String[0]);
                                         }
                                     }
-
                             );
                             return cache.track(base, key, candidate);
                         }));
@@ -3,6 +3,7 @@ package org.anystub;
 import org.anystub.mgmt.BaseManagerFactory;
 import org.anystub.mgmt.MTCache;
 import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
@@ -17,7 +18,6 @@ import reactor.util.context.ContextView;
 import java.net.URI;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.List;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -30,6 +30,7 @@ import static org.anystub.StringUtil.toCharacterString;
 
 public class Util {
     public static final String HEADER_MASK = "^[A-Za-z0-9\\-]+: .+";
+    public static final int MAX_BODY_SIZE = 256 * 1024 * 1024;
 
     private Util() {
     }
@@ -66,24 +67,36 @@ public class Util {
     }
 
 
+    /**
+     * joins the body and converts it for keeping in stub-file
+     *
+     * @param body body of a request or a response
+     * @return text or base64 representation of the body
+     */
     public static Mono<String> extractStringMono(Flux<DataBuffer> body) {
-        return body.map(dataBuffer ->
-                        StringUtil.readStream(dataBuffer.asInputStream(true)))
-                .collectList()
-                .map(block -> {
-                    if (block == null || block.isEmpty()) {
-                        return new byte[0];
-                    } else {
-                        return
-                                block.stream()
-                                        .reduce(new byte[0], (result, bytes2) -> {
-                                            int v = result.length;
-                                            result = Arrays.copyOf(result, v + bytes2.length);
-                                            System.arraycopy(bytes2, 0, result, v, bytes2.length);
-                                            return result;
-                                        });
+        return extractStringMono(body, MAX_BODY_SIZE);
+    }
+
+    /**
+     * joins the body and converts it for keeping in stub-file
+     *
+     * @param body         body of a request or a response
+     * @param maxByteCount max size of the body, -1 for unlimited
+     * @return text or base64 representation of the body,
+     * DataBufferLimitException if the body is longer than the limit
+     */
+    public static Mono<String> extractStringMono(Flux<DataBuffer> body, int maxByteCount) {
+        return DataBufferUtils.join(body, maxByteCount)
+                .map(dataBuffer -> {
+                    try {
+                        byte[] bytes = new byte[dataBuffer.readableByteCount()];
+                        dataBuffer.read(bytes);
+                        return bytes;
+                    } finally {
+                        DataBufferUtils.release(dataBuffer);
                     }
                 })
+                .defaultIfEmpty(new byte[0])
                 .map(bodyContext -> {
                     String bodyString = toCharacterString(bodyContext);
                     if (bodyString.matches(HEADER_MASK)) {
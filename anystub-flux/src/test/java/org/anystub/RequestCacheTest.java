@@ -0,0 +1,60 @@
+package org.anystub;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class RequestCacheTest {
+
+    private final Base base = new Base("RequestCacheTest.yml");
+
+    @Test
+    void testJoinRunningRequest() {
+        RequestCache<String> cache = new RequestCache<>();
+        Sinks.One<String> sink = Sinks.one();
+
+        Mono<String> first = cache.track(base, List.of("a"), sink.asMono());
+        Mono<String> second = cache.track(base, List.of("a"), Mono.just("other"));
+
+        assertSame(first, second);
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+
+        first.subscribe();
+        sink.tryEmitValue("value");
+
+        assertEquals(0, cache.size());
+        assertEquals("next", cache.track(base, List.of("a"), Mono.just("next")).block());
+        assertEquals(2, cache.getMisses());
+    }
+
+    @Test
+    void testEvictBySize() {
+        RequestCache<String> cache = new RequestCache<>(2, 60_000);
+
+        cache.track(base, List.of("a"), Mono.never());
+        cache.track(base, List.of("b"), Mono.never());
+        cache.track(base, List.of("c"), Mono.never());
+
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.getEvictions());
+    }
+
+    @Test
+    void testEvictByTime() {
+        RequestCache<String> cache = new RequestCache<>(10, 0);
+
+        Mono<String> first = cache.track(base, List.of("a"), Mono.never());
+        Mono<String> second = cache.track(base, List.of("a"), Mono.never());
+
+        assertNotSame(first, second);
+        assertEquals(1, cache.getEvictions());
+        assertEquals(2, cache.getMisses());
+    }
+}
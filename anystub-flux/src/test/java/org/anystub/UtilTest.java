@@ -2,6 +2,9 @@ package org.anystub;
 
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferLimitException;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
 import org.springframework.http.HttpHeaders;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
@@ -10,6 +13,7 @@ import reactor.test.StepVerifier;
 import reactor.test.scheduler.VirtualTimeScheduler;
 
 import java.io.File;
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.util.List;
 
@@ -98,4 +102,27 @@ class UtilTest {
                 .verifyComplete();
     }
 
-}
\ No newline at end of file
+    @Test
+    void testExtractStringMono() {
+        DefaultDataBufferFactory factory = DefaultDataBufferFactory.sharedInstance;
+        Flux<DataBuffer> body = Flux.just("chunk1 ", "chunk2 ", "chunk3")
+                .map(s -> factory.wrap(s.getBytes(StandardCharsets.UTF_8)));
+
+        StepVerifier.create(Util.extractStringMono(body))
+                .expectNext("chunk1 chunk2 chunk3")
+                .verifyComplete();
+
+        StepVerifier.create(Util.extractStringMono(Flux.empty()))
+                .expectNext("")
+                .verifyComplete();
+
+        StepVerifier.create(Util.extractStringMono(Flux.just(factory.wrap(new byte[]{1, 2, 3}))))
+                .expectNext("BASE64 AQID")
+                .verifyComplete();
+
+        StepVerifier.create(Util.extractStringMono(Flux.just(factory.wrap(new byte[10])), 5))
+                .expectError(DataBufferLimitException.class)
+                .verify();
+    }
+
+}
@@ -2,7 +2,7 @@ package org.anystub;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.util.MultiValueMap;
@@ -12,11 +12,11 @@ import java.util.Iterator;
 import java.util.Map;
 
 public class DecoderResponseEntity<T> implements Decoder<ResponseEntity<T>>{
-    private final TypeReference<T> responseClass;
-    private final ObjectMapper objectMapper = ObjectMapperFactory.get();
+    private static final DecoderJson<Map> HEADERS = new DecoderJson<>(Map.class);
+    private final ObjectReader reader;
 
     public DecoderResponseEntity(TypeReference<T> responseClass) {
-        this.responseClass = responseClass;
+        this.reader = ObjectMapperFactory.get().readerFor(responseClass);
     }
 
     @Override
@@ -30,7 +30,7 @@ public class DecoderResponseEntity<T> implements Decoder<ResponseEntity<T>>{
         }
         HttpStatus httpStatus = HttpStatus.valueOf(Integer.parseInt(code));
 
-        Map headersMap = new DecoderJson<Map>(Map.class).decode(headers);
+        Map headersMap = HEADERS.decode(headers);
         MultiValueMap<String,String> multiValueMap = new MultiValueMapAdapter<>(headersMap);
 
         if (body == null) {
@@ -39,7 +39,7 @@ public class DecoderResponseEntity<T> implements Decoder<ResponseEntity<T>>{
 
         T t;
         try {
-            t = objectMapper.readValue(body, responseClass);
+            t = reader.readValue(body);
         } catch (JsonProcessingException e) {
             t = null;
         }
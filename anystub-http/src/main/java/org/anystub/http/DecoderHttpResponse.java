@@ -1,12 +1,33 @@
 package org.anystub.http;
 
-import org.anystub.Decoder;
+import org.anystub.ReusableDecoder;
 import org.apache.http.HttpResponse;
 
-public class DecoderHttpResponse implements Decoder<HttpResponse> {
+/**
+ * restores HttpResponse, memoized responses are copied on every replay, see {@link HttpUtil#copy(HttpResponse)}
+ */
+public class DecoderHttpResponse implements ReusableDecoder<HttpResponse> {
+    private final SidecarBodies bodies;
+
+    public DecoderHttpResponse() {
+        this(null);
+    }
+
+    /**
+     * @param bodies keeps large bodies, could be null
+     */
+    public DecoderHttpResponse(SidecarBodies bodies) {
+        this.bodies = bodies;
+    }
+
     @Override
     public HttpResponse decode(Iterable<String> iterable) {
-        return HttpUtil.decode(iterable);
+        return HttpUtil.decode(iterable, bodies);
+    }
+
+    @Override
+    public HttpResponse reuse(HttpResponse decoded) {
+        return HttpUtil.copy(decoded);
     }
 
 }
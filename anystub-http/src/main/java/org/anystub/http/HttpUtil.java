@@ -18,6 +18,7 @@ import org.apache.http.message.BasicHttpResponse;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -55,6 +56,16 @@ public class HttpUtil {
      * @return recovered HttpResponse
      */
     public static HttpResponse decode(Iterable<String> iterable) {
+        return decode(iterable, null);
+    }
+
+    /**
+     * builds HttpResponse from strings, restores bodies kept in separate files
+     * @param iterable strings representation of HttpResponse
+     * @param bodies keeps large bodies, could be null
+     * @return recovered HttpResponse
+     */
+    public static HttpResponse decode(Iterable<String> iterable, SidecarBodies bodies) {
         BasicHttpResponse basicHttpResponse;
 
         Iterator<String> iterator = iterable.iterator();
@@ -79,7 +90,9 @@ public class HttpUtil {
             basicHttpResponse.setHeader(header.substring(0, i), header.substring(i + 2));
         }
 
-        if (postHeader != null) {
+        if (postHeader != null && bodies != null && bodies.refersTo(postHeader)) {
+            basicHttpResponse.setEntity(bodies.restore(postHeader));
+        } else if (postHeader != null) {
             BasicHttpEntity httpEntity = new BasicHttpEntity();
 
             byte[] bytes = StringUtil.recoverBinaryData(postHeader);
@@ -91,12 +104,49 @@ public class HttpUtil {
         return basicHttpResponse;
     }
 
+    /**
+     * copies status, headers and the body of HttpResponse.
+     * a body which can't be read twice is buffered in the source response first, so the copies share it
+     * @param httpResponse response to copy
+     * @return copy of the response
+     */
+    public static HttpResponse copy(HttpResponse httpResponse) {
+        BasicHttpResponse copy = new BasicHttpResponse(httpResponse.getStatusLine());
+        copy.setHeaders(httpResponse.getAllHeaders());
+
+        synchronized (httpResponse) {
+            HttpEntity entity = httpResponse.getEntity();
+            if (entity != null && !entity.isRepeatable()) {
+                try {
+                    entity = new BufferedHttpEntity(entity);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                httpResponse.setEntity(entity);
+            }
+            copy.setEntity(entity);
+        }
+        return copy;
+    }
+
     /**
      * converts HttpResponse to strings
      * @param httpResponse response to convert
      * @return string's representation to save in stub
      */
     public static List<String> encode(HttpResponse httpResponse) {
+        return encode(httpResponse, null);
+    }
+
+    /**
+     * converts HttpResponse to strings.
+     * if bodies accept the response its body is not buffered, it's written into a separate file
+     * and the response reads it from the file
+     * @param httpResponse response to convert
+     * @param bodies keeps large bodies, could be null
+     * @return string's representation to save in stub
+     */
+    public static List<String> encode(HttpResponse httpResponse, SidecarBodies bodies) {
         ArrayList<String> strings = new ArrayList<>();
         strings.add(httpResponse.getStatusLine().getProtocolVersion().toString());
         strings.add(String.valueOf(httpResponse.getStatusLine().getStatusCode()));
@@ -106,7 +156,13 @@ public class HttpUtil {
             strings.add(headerToString(h));
         }
 
-        if (httpResponse.getEntity() != null) {
+        if (bodies != null && bodies.accepts(httpResponse)) {
+            try {
+                strings.add(bodies.capture(httpResponse));
+            } catch (IOException e) {
+                LOGGER.log(Level.SEVERE, "capturing the entity failed", e);
+            }
+        } else if (httpResponse.getEntity() != null) {
             try {
                 BufferedHttpEntity bufferedHttpEntity = new BufferedHttpEntity(httpResponse.getEntity());
                 httpResponse.setEntity(bufferedHttpEntity);
@@ -158,7 +214,7 @@ public class HttpUtil {
             return Optional.empty();
         }
         String entityText = StringUtil.toCharacterString(bytes);
-        if (entityText.matches(HEADER_MASK)) {
+        if (entityText.matches(HEADER_MASK) || SidecarBodies.isReference(entityText)) {
             entityText = StringUtil.addTextPrefix(entityText);
         }
 
@@ -0,0 +1,133 @@
+package org.anystub.http;
+
+import org.anystub.Base;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpResponse;
+import org.apache.http.entity.FileEntity;
+import org.apache.http.util.EntityUtils;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.util.UUID;
+import java.util.logging.Logger;
+
+/**
+ * keeps large bodies of http responses in files next to the stub-file.
+ * a document refers to a body with {@link #FILE_PREFIX} and the path relative to the folder of the stub-file,
+ * bodies are kept in the folder named after the stub-file with ".bodies" suffix.
+ * <p>
+ * on recording the body is streamed from the upstream into the file without buffering in memory,
+ * then the client reads it from the file.
+ * on replaying the body is streamed from the file.
+ * the folder is removed with the stub-file by {@link Base#purge()}
+ */
+public class SidecarBodies {
+
+    private static final Logger LOGGER = Logger.getLogger(SidecarBodies.class.getName());
+
+    public static final String FILE_PREFIX = "FILE ";
+    private static final String FOLDER_SUFFIX = Base.SIDE_FOLDER_SUFFIX;
+
+    private final File folder;
+    private final String stubFileName;
+    private final long threshold;
+
+    /**
+     * @param stubFilePath path to the stub-file
+     * @param threshold    bodies longer than the threshold or with unknown length are kept in files,
+     *                     negative value disables capturing
+     */
+    public SidecarBodies(String stubFilePath, long threshold) {
+        File stubFile = new File(stubFilePath);
+        this.folder = stubFile.getAbsoluteFile().getParentFile();
+        this.stubFileName = stubFile.getName();
+        this.threshold = threshold;
+    }
+
+    /**
+     * checks if the body of the response should be kept in a file
+     *
+     * @param response response to check
+     * @return true if body should be captured with {@link #capture(HttpResponse)}
+     */
+    public boolean accepts(HttpResponse response) {
+        if (threshold < 0 || response.getEntity() == null) {
+            return false;
+        }
+        long contentLength = response.getEntity().getContentLength();
+        return contentLength < 0 || contentLength > threshold;
+    }
+
+    /**
+     * writes the body of the response into a new file and replaces the entity with one which reads the file
+     *
+     * @param response response to capture
+     * @return reference to the file for the stub-file
+     * @throws IOException if the body can't be read or written
+     */
+    public String capture(HttpResponse response) throws IOException {
+        String relativePath = stubFileName + FOLDER_SUFFIX + "/" + UUID.randomUUID();
+        File file = new File(folder, relativePath);
+        File parent = file.getParentFile();
+        if (!parent.exists() && !parent.mkdirs()) {
+            LOGGER.warning(() -> String.format("failed to create folder %s", parent));
+        }
+        HttpEntity entity = response.getEntity();
+        try (OutputStream outputStream = new FileOutputStream(file)) {
+            entity.writeTo(outputStream);
+        } catch (IOException e) {
+            Files.deleteIfExists(file.toPath());
+            throw e;
+        } finally {
+            EntityUtils.consumeQuietly(entity);
+        }
+        FileEntity fileEntity = new FileEntity(file);
+        fileEntity.setContentType(entity.getContentType());
+        fileEntity.setContentEncoding(entity.getContentEncoding());
+        response.setEntity(fileEntity);
+        return FILE_PREFIX + relativePath;
+    }
+
+    /**
+     * checks if the value looks like a reference, such text bodies are recorded with a text prefix
+     *
+     * @param value value from a document
+     * @return true if the value could be taken for a reference
+     */
+    public static boolean isReference(String value) {
+        return value != null && value.startsWith(FILE_PREFIX);
+    }
+
+    /**
+     * checks if the value refers to an existing file with a body of this stub-file.
+     * text bodies of old stub-files could start with {@link #FILE_PREFIX} too, they aren't references
+     *
+     * @param value value from a document
+     * @return true if the value is a reference
+     */
+    public boolean refersTo(String value) {
+        String prefix = FILE_PREFIX + stubFileName + FOLDER_SUFFIX + "/";
+        if (value == null || !value.startsWith(prefix)) {
+            return false;
+        }
+        String name = value.substring(prefix.length());
+        return !name.isEmpty()
+                && name.indexOf('/') < 0
+                && name.indexOf('\\') < 0
+                && new File(folder, value.substring(FILE_PREFIX.length())).isFile();
+    }
+
+    /**
+     * builds an entity which streams the body from the file,
+     * the file is opened when the client reads the body
+     *
+     * @param reference reference from a document
+     * @return entity of the response
+     */
+    public HttpEntity restore(String reference) {
+        return new FileEntity(new File(folder, reference.substring(FILE_PREFIX.length())));
+    }
+}
@@ -31,6 +31,7 @@ public class StubHttpClient implements HttpClient {
     private static final Logger LOGGER = Logger.getLogger(StubHttpClient.class.getName());
 
     private Base base = null;
+    private long streamingThreshold = -1;
     private final HttpClient httpClient;
 
     public StubHttpClient(HttpClient httpClient) {
@@ -50,46 +51,37 @@ public class StubHttpClient implements HttpClient {
 
     @Override
     public HttpResponse execute(HttpUriRequest httpUriRequest) throws IOException, ClientProtocolException {
-        return getBase()
-                .request2(new Supplier<HttpResponse, IOException>() {
-                              @Override
-                              public HttpResponse get() throws IOException {
-                                  HttpResponse execute1 = httpClient.execute(httpUriRequest);
-                                  LOGGER.finest("response: " + execute1);
-                                  return execute1;
-                              }
-                          },
-                        new DecoderHttpResponse(),
-                        new EncoderHttpResponse(),
-                        keys(httpUriRequest));
+        return request(new Supplier<HttpResponse, IOException>() {
+                           @Override
+                           public HttpResponse get() throws IOException {
+                               HttpResponse execute1 = httpClient.execute(httpUriRequest);
+                               LOGGER.finest("response: " + execute1);
+                               return execute1;
+                           }
+                       },
+                keys(httpUriRequest));
     }
 
     @Override
     public HttpResponse execute(HttpUriRequest httpUriRequest, HttpContext httpContext) throws IOException, ClientProtocolException {
-        return getBase()
-                .request2(new Supplier<HttpResponse, IOException>() {
-                              @Override
-                              public HttpResponse get() throws IOException {
-                                  return httpClient.execute(httpUriRequest, httpContext);
-                              }
-                          },
-                        new DecoderHttpResponse(),
-                        new EncoderHttpResponse(),
-                        keys(httpUriRequest));
+        return request(new Supplier<HttpResponse, IOException>() {
+                           @Override
+                           public HttpResponse get() throws IOException {
+                               return httpClient.execute(httpUriRequest, httpContext);
+                           }
+                       },
+                keys(httpUriRequest));
     }
 
     @Override
     public HttpResponse execute(HttpHost httpHost, HttpRequest httpRequest) throws IOException, ClientProtocolException {
-        return getBase()
-                .request2(new Supplier<HttpResponse, IOException>() {
-                              @Override
-                              public HttpResponse get() throws IOException {
-                                  return httpClient.execute(httpHost, httpRequest);
-                              }
-                          },
-                        new DecoderHttpResponse(),
-                        new EncoderHttpResponse(),
-                        HttpUtil.encode(httpRequest, httpHost).toArray(new String[0]));
+        return request(new Supplier<HttpResponse, IOException>() {
+                           @Override
+                           public HttpResponse get() throws IOException {
+                               return httpClient.execute(httpHost, httpRequest);
+                           }
+                       },
+                HttpUtil.encode(httpRequest, httpHost).toArray(new String[0]));
     }
 
     @Override
@@ -97,16 +89,13 @@ public class StubHttpClient implements HttpClient {
         LOGGER.info("execute(HttpUriRequest httpUriRequest, HttpContext httpContext)");
         LOGGER.info(() -> String.format("input parameters: %s, %s", httpRequest, httpContext));
 
-        return getBase()
-                .request2(new Supplier<HttpResponse, IOException>() {
-                              @Override
-                              public HttpResponse get() throws IOException {
-                                  return httpClient.execute(httpHost, httpRequest, httpContext);
-                              }
-                          },
-                        new DecoderHttpResponse(),
-                        new EncoderHttpResponse(),
-                        keys(httpRequest));
+        return request(new Supplier<HttpResponse, IOException>() {
+                           @Override
+                           public HttpResponse get() throws IOException {
+                               return httpClient.execute(httpHost, httpRequest, httpContext);
+                           }
+                       },
+                keys(httpRequest));
     }
 
     @Override
@@ -130,6 +119,23 @@ public class StubHttpClient implements HttpClient {
         return responseHandler.handleResponse(execute);
     }
 
+    private HttpResponse request(Supplier<HttpResponse, IOException> supplier, String[] keys) throws IOException {
+        Base stub = getBase();
+        SidecarBodies bodies = new SidecarBodies(stub.getFilePath(), streamingThreshold);
+        return stub
+                .request2(supplier,
+                        new DecoderHttpResponse(bodies),
+                        (httpResponse, decoder) -> {
+                            if (!bodies.accepts(httpResponse)) {
+                                return decoder.apply(HttpUtil.encode(httpResponse), null);
+                            }
+                            // the client gets the upstream response, its body is read from the captured file
+                            decoder.apply(HttpUtil.encode(httpResponse, bodies), null);
+                            return httpResponse;
+                        },
+                        () -> keys);
+    }
+
     private String[] keys(HttpRequest httpRequest) {
         return encode(httpRequest).toArray(new String[0]);
     }
@@ -156,6 +162,18 @@ public class StubHttpClient implements HttpClient {
         return this;
     }
 
+    /**
+     * enables streaming capture of response bodies: bodies longer than the threshold or with unknown length
+     * are streamed into files next to the stub-file instead of buffering in memory
+     *
+     * @param streamingThreshold length of a body in bytes, negative value disables streaming capture
+     * @return this
+     */
+    public StubHttpClient setStreamingThreshold(long streamingThreshold) {
+        this.streamingThreshold = streamingThreshold;
+        return this;
+    }
+
     /**
      * wraps httpClient with a stub
      *
@@ -1,15 +1,23 @@
 package org.anystub.http;
 
 import org.apache.http.HttpResponse;
+import org.apache.http.ProtocolVersion;
 import org.apache.http.entity.BasicHttpEntity;
+import org.apache.http.message.BasicHttpResponse;
+import org.apache.http.util.EntityUtils;
 import org.junit.jupiter.api.Test;
 
 import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.util.List;
 
 import static java.util.Arrays.asList;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class HttpUtilTest {
     
@@ -33,4 +41,49 @@ public class HttpUtilTest {
 
     }
 
-}
\ No newline at end of file
+    @Test
+    public void testStreamingCapture() throws IOException {
+        SidecarBodies bodies = new SidecarBodies("target/sidecar/stub.yml", 4);
+
+        BasicHttpResponse response = new BasicHttpResponse(new ProtocolVersion("HTTP", 1, 1), 200, "OK");
+        BasicHttpEntity entity = new BasicHttpEntity();
+        entity.setContentLength(-1);
+        entity.setContent(new ByteArrayInputStream("large body".getBytes(StandardCharsets.UTF_8)));
+        response.setEntity(entity);
+
+        List<String> encode = HttpUtil.encode(response, bodies);
+        String reference = encode.get(encode.size() - 1);
+        assertTrue(SidecarBodies.isReference(reference));
+        assertTrue(bodies.refersTo(reference));
+        // the body is written before the client reads it
+        File file = new File("target/sidecar", reference.substring(SidecarBodies.FILE_PREFIX.length()));
+        assertEquals("large body", new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8));
+
+        assertEquals("large body", EntityUtils.toString(response.getEntity(), StandardCharsets.UTF_8));
+
+        HttpResponse decode = HttpUtil.decode(encode, bodies);
+        assertEquals("large body", EntityUtils.toString(decode.getEntity(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testLegacyBodyLikeReference() throws IOException {
+        SidecarBodies bodies = new SidecarBodies("target/sidecar/legacy.yml", 4);
+
+        List<String> strings = asList("HTTP/1.1", "200", "OK", "Content-Type: text/plain", "FILE legacy.yml.bodies/missing");
+        assertFalse(bodies.refersTo(strings.get(4)));
+        HttpResponse decode = HttpUtil.decode(strings, bodies);
+        assertEquals("FILE legacy.yml.bodies/missing", EntityUtils.toString(decode.getEntity(), StandardCharsets.UTF_8));
+
+        decode = HttpUtil.decode(asList("HTTP/1.1", "200", "OK", "FILE body"), bodies);
+        assertEquals("FILE body", EntityUtils.toString(decode.getEntity(), StandardCharsets.UTF_8));
+        assertFalse(bodies.refersTo("FILE ../legacy.yml"));
+    }
+
+    @Test
+    public void testEncodeBodyLikeReference() {
+        BasicHttpEntity basicHttpEntity = new BasicHttpEntity();
+        basicHttpEntity.setContent(new ByteArrayInputStream("FILE body".getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals("TEXT FILE body", HttpUtil.extractEntity(basicHttpEntity).get());
+    }
+}
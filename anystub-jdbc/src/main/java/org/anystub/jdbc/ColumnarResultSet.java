@@ -0,0 +1,1537 @@
+package org.anystub.jdbc;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.sql.Array;
+import java.sql.Blob;
+import java.sql.Clob;
+import java.sql.Date;
+import java.sql.NClob;
+import java.sql.Ref;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.RowId;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.SQLWarning;
+import java.sql.SQLXML;
+import java.sql.Statement;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Calendar;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import static java.sql.Types.BIGINT;
+import static java.sql.Types.DECIMAL;
+import static java.sql.Types.DOUBLE;
+import static java.sql.Types.FLOAT;
+import static java.sql.Types.INTEGER;
+import static java.sql.Types.NUMERIC;
+import static java.sql.Types.REAL;
+import static java.sql.Types.SMALLINT;
+import static java.sql.Types.TINYINT;
+
+/**
+ * read-only scrollable resultSet restored from a stub.
+ * keeps encoded cells and decodes a column on first access:
+ * integer types into int[] or long[], floating types into double[], with a null bitmap,
+ * other types into objects using {@link ResultSetUtil#decodeValue}.
+ * encoded cells are released after every column is decoded
+ */
+public class ColumnarResultSet implements ResultSet {
+
+    private final String[] names;
+    private final String[] labels;
+    private final String[] typeNames;
+    private final int[] types;
+    private final int[] precisions;
+    private final int[] scales;
+    private final int rowCount;
+    private final Column[] columns;
+
+    /**
+     * encoded cells row by row
+     */
+    private String[] cells;
+    private int decodedColumns = 0;
+
+    /**
+     * current row starting from 1, 0 - before the first row, rowCount + 1 - after the last row
+     */
+    private int row = 0;
+    private boolean wasNull = false;
+    private boolean closed = false;
+    private int fetchSize = 0;
+
+    /**
+     * @param values encoded header followed by encoded cells, see {@link ResultSetUtil#encode(ResultSet)}
+     */
+    public ColumnarResultSet(Iterable<String> values) {
+        Iterator<String> it = values.iterator();
+        int columnCount = it.hasNext() ? Integer.parseInt(it.next()) : 0;
+        names = new String[columnCount];
+        labels = new String[columnCount];
+        typeNames = new String[columnCount];
+        types = new int[columnCount];
+        precisions = new int[columnCount];
+        scales = new int[columnCount];
+        for (int i = 0; i < columnCount; i++) {
+            String[] split = it.next().split("/");
+            names[i] = split[0];
+            labels[i] = split.length == 2 ? split[1] : split[0];
+            typeNames[i] = it.next();
+            types[i] = Integer.parseInt(it.next());
+            precisions[i] = Integer.parseInt(it.next());
+            scales[i] = Integer.parseInt(it.next());
+        }
+
+        List<String> data = new ArrayList<>();
+        if (columnCount > 0) {
+            it.forEachRemaining(data::add);
+        }
+        rowCount = columnCount == 0 ? 0 : data.size() / columnCount;
+        cells = data.toArray(new String[0]);
+        columns = new Column[columnCount];
+    }
+
+    private ColumnarResultSet(ColumnarResultSet source) {
+        names = source.names;
+        labels = source.labels;
+        typeNames = source.typeNames;
+        types = source.types;
+        precisions = source.precisions;
+        scales = source.scales;
+        rowCount = source.rowCount;
+        columns = source.columns.clone();
+        decodedColumns = columns.length;
+        cells = null;
+    }
+
+    /**
+     * builds a resultSet over the same rows with own cursor.
+     * every column of this resultSet is decoded, decoded values are shared by the copies,
+     * mutable values, e.g. timestamps, byte arrays and LOBs, are copied on read
+     *
+     * @return copy of the resultSet positioned before the first row
+     */
+    public synchronized ColumnarResultSet copy() {
+        for (int i = 0; i < columns.length; i++) {
+            if (columns[i] == null) {
+                columns[i] = decodeColumn(i);
+            }
+        }
+        decodedColumns = columns.length;
+        cells = null;
+        return new ColumnarResultSet(this);
+    }
+
+    int rowCount() {
+        return rowCount;
+    }
+
+    int columnCount() {
+        return columns.length;
+    }
+
+    String columnName(int column) {
+        return names[column - 1];
+    }
+
+    String columnLabel(int column) {
+        return labels[column - 1];
+    }
+
+    String columnTypeName(int column) {
+        return typeNames[column - 1];
+    }
+
+    int columnType(int column) {
+        return types[column - 1];
+    }
+
+    int precision(int column) {
+        return precisions[column - 1];
+    }
+
+    int scale(int column) {
+        return scales[column - 1];
+    }
+
+    private Column column(int column) throws SQLException {
+        checkOpen();
+        if (column < 1 || column > columns.length) {
+            throw new SQLException(String.format("column index %d out of range", column));
+        }
+        if (row < 1 || row > rowCount) {
+            throw new SQLException("no current row");
+        }
+        int i = column - 1;
+        Column res = columns[i];
+        if (res == null) {
+            res = decodeColumn(i);
+            columns[i] = res;
+            if (++decodedColumns == columns.length) {
+                cells = null;
+            }
+        }
+        wasNull = res.nulls.get(row - 1);
+        return res;
+    }
+
+    private Column decodeColumn(int i) {
+        if (!ResultSetUtil.hasTypeAdapter(typeNames[i])) {
+            switch (types[i]) {
+                case TINYINT:
+                case SMALLINT:
+                    return decodeInt(i, true);
+                case INTEGER:
+                    return decodeInt(i, false);
+                case BIGINT:
+                    return decodeLong(i);
+                case FLOAT:
+                    return decodeDouble(i, true);
+                case NUMERIC:
+                case DECIMAL:
+                case REAL:
+                case DOUBLE:
+                    return decodeDouble(i, false);
+                default:
+                    break;
+            }
+        }
+        return decodeObject(i);
+    }
+
+    private IntColumn decodeInt(int column, boolean shortType) {
+        IntColumn res = new IntColumn(new int[rowCount], shortType);
+        for (int r = 0; r < rowCount; r++) {
+            String cell = cells[r * columns.length + column];
+            if (cell == null) {
+                res.nulls.set(r);
+            } else {
+                res.values[r] = (int) parseLong(cell, types[column]);
+            }
+        }
+        return res;
+    }
+
+    private LongColumn decodeLong(int column) {
+        LongColumn res = new LongColumn(new long[rowCount]);
+        for (int r = 0; r < rowCount; r++) {
+            String cell = cells[r * columns.length + column];
+            if (cell == null) {
+                res.nulls.set(r);
+            } else {
+                res.values[r] = parseLong(cell, types[column]);
+            }
+        }
+        return res;
+    }
+
+    private DoubleColumn decodeDouble(int column, boolean floatType) {
+        DoubleColumn res = new DoubleColumn(new double[rowCount], floatType);
+        for (int r = 0; r < rowCount; r++) {
+            String cell = cells[r * columns.length + column];
+            if (cell == null) {
+                res.nulls.set(r);
+            } else {
+                res.values[r] = parseDouble(cell, types[column]);
+            }
+        }
+        return res;
+    }
+
+    private ObjectColumn decodeObject(int column) {
+        ObjectColumn res = new ObjectColumn(new Object[rowCount], new String[rowCount], types[column], typeNames[column]);
+        for (int r = 0; r < rowCount; r++) {
+            String cell = cells[r * columns.length + column];
+            res.raw[r] = cell;
+            res.values[r] = ResultSetUtil.decodeValue(cell, types[column], typeNames[column]);
+            if (res.values[r] == null) {
+                res.nulls.set(r);
+            }
+        }
+        return res;
+    }
+
+    private static long parseLong(String cell, int type) {
+        try {
+            return Long.parseLong(cell);
+        } catch (NumberFormatException e) {
+            Object value = ResultSetUtil.decodeValue(cell, type);
+            return value instanceof Number ? ((Number) value).longValue() : 0L;
+        }
+    }
+
+    private static double parseDouble(String cell, int type) {
+        try {
+            return Double.parseDouble(cell);
+        } catch (NumberFormatException e) {
+            Object value = ResultSetUtil.decodeValue(cell, type);
+            return value instanceof Number ? ((Number) value).doubleValue() : 0.0;
+        }
+    }
+
+    private void checkOpen() throws SQLException {
+        if (closed) {
+            throw new SQLException("resultSet is closed");
+        }
+    }
+
+    private static SQLException readOnly() {
+        return new SQLFeatureNotSupportedException("resultSet is read-only");
+    }
+
+    @Override
+    public boolean next() throws SQLException {
+        checkOpen();
+        if (row <= rowCount) {
+            row++;
+        }
+        return row <= rowCount;
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+    }
+
+    @Override
+    public boolean wasNull() {
+        return wasNull;
+    }
+
+    @Override
+    public String getString(int i) throws SQLException {
+        Column column = column(i);
+        return wasNull ? null : column.getString(row - 1);
+    }
+
+    @Override
+    public boolean getBoolean(int i) throws SQLException {
+        Column column = column(i);
+        return !wasNull && JdbcValues.toBoolean(column.get(row - 1));
+    }
+
+    @Override
+    public byte getByte(int i) throws SQLException {
+        return (byte) getLong(i);
+    }
+
+    @Override
+    public short getShort(int i) throws SQLException {
+        return (short) getLong(i);
+    }
+
+    @Override
+    public int getInt(int i) throws SQLException {
+        return (int) getLong(i);
+    }
+
+    @Override
+    public long getLong(int i) throws SQLException {
+        Column column = column(i);
+        return wasNull ? 0L : column.getLong(row - 1);
+    }
+
+    @Override
+    public float getFloat(int i) throws SQLException {
+        return (float) getDouble(i);
+    }
+
+    @Override
+    public double getDouble(int i) throws SQLException {
+        Column column = column(i);
+        return wasNull ? 0.0 : column.getDouble(row - 1);
+    }
+
+    @Override
+    @Deprecated
+    public BigDecimal getBigDecimal(int i, int scale) throws SQLException {
+        BigDecimal value = getBigDecimal(i);
+        return value == null ? null : value.setScale(scale, RoundingMode.HALF_UP);
+    }
+
+    @Override
+    public BigDecimal getBigDecimal(int i) throws SQLException {
+        Column column = column(i);
+        return wasNull ? null : column.getBigDecimal(row - 1);
+    }
+
+    @Override
+    public byte[] getBytes(int i) throws SQLException {
+        Column column = column(i);
+        return wasNull ? null : JdbcValues.toBytes(column.get(row - 1), column.raw(row - 1));
+    }
+
+    @Override
+    public Date getDate(int i) throws SQLException {
+        Column column = column(i);
+        return wasNull ? null : JdbcValues.toDate(column.get(row - 1));
+    }
+
+    @Override
+    public Time getTime(int i) throws SQLException {
+        Column column = column(i);
+        return wasNull ? null : JdbcValues.toTime(column.get(row - 1));
+    }
+
+    @Override
+    public Timestamp getTimestamp(int i) throws SQLException {
+        Column column = column(i);
+        return wasNull ? null : JdbcValues.toTimestamp(column.get(row - 1));
+    }
+
+    @Override
+    public InputStream getAsciiStream(int i) throws SQLException {
+        String value = getString(i);
+        return value == null ? null : new ByteArrayInputStream(value.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    @Override
+    @Deprecated
+    public InputStream getUnicodeStream(int i) throws SQLException {
+        String value = getString(i);
+        return value == null ? null : new ByteArrayInputStream(value.getBytes(StandardCharsets.UTF_16BE));
+    }
+
+    @Override
+    public InputStream getBinaryStream(int i) throws SQLException {
+        byte[] value = getBytes(i);
+        return value == null ? null : new ByteArrayInputStream(value);
+    }
+
+    @Override
+    public String getString(String s) throws SQLException {
+        return getString(findColumn(s));
+    }
+
+    @Override
+    public boolean getBoolean(String s) throws SQLException {
+        return getBoolean(findColumn(s));
+    }
+
+    @Override
+    public byte getByte(String s) throws SQLException {
+        return getByte(findColumn(s));
+    }
+
+    @Override
+    public short getShort(String s) throws SQLException {
+        return getShort(findColumn(s));
+    }
+
+    @Override
+    public int getInt(String s) throws SQLException {
+        return getInt(findColumn(s));
+    }
+
+    @Override
+    public long getLong(String s) throws SQLException {
+        return getLong(findColumn(s));
+    }
+
+    @Override
+    public float getFloat(String s) throws SQLException {
+        return getFloat(findColumn(s));
+    }
+
+    @Override
+    public double getDouble(String s) throws SQLException {
+        return getDouble(findColumn(s));
+    }
+
+    @Override
+    @Deprecated
+    public BigDecimal getBigDecimal(String s, int scale) throws SQLException {
+        return getBigDecimal(findColumn(s), scale);
+    }
+
+    @Override
+    public byte[] getBytes(String s) throws SQLException {
+        return getBytes(findColumn(s));
+    }
+
+    @Override
+    public Date getDate(String s) throws SQLException {
+        return getDate(findColumn(s));
+    }
+
+    @Override
+    public Time getTime(String s) throws SQLException {
+        return getTime(findColumn(s));
+    }
+
+    @Override
+    public Timestamp getTimestamp(String s) throws SQLException {
+        return getTimestamp(findColumn(s));
+    }
+
+    @Override
+    public InputStream getAsciiStream(String s) throws SQLException {
+        return getAsciiStream(findColumn(s));
+    }
+
+    @Override
+    @Deprecated
+    public InputStream getUnicodeStream(String s) throws SQLException {
+        return getUnicodeStream(findColumn(s));
+    }
+
+    @Override
+    public InputStream getBinaryStream(String s) throws SQLException {
+        return getBinaryStream(findColumn(s));
+    }
+
+    @Override
+    public SQLWarning getWarnings() {
+        return null;
+    }
+
+    @Override
+    public void clearWarnings() {
+        // no warnings
+    }
+
+    @Override
+    public String getCursorName() throws SQLException {
+        throw new SQLFeatureNotSupportedException("cursor name is not supported");
+    }
+
+    @Override
+    public ResultSetMetaData getMetaData() {
+        return new ColumnarResultSetMetaData(this);
+    }
+
+    @Override
+    public Object getObject(int i) throws SQLException {
+        Column column = column(i);
+        return wasNull ? null : column.get(row - 1);
+    }
+
+    @Override
+    public Object getObject(String s) throws SQLException {
+        return getObject(findColumn(s));
+    }
+
+    @Override
+    public int findColumn(String s) throws SQLException {
+        for (int i = 0; i < labels.length; i++) {
+            if (labels[i].equalsIgnoreCase(s)) {
+                return i + 1;
+            }
+        }
+        for (int i = 0; i < names.length; i++) {
+            if (names[i].equalsIgnoreCase(s)) {
+                return i + 1;
+            }
+        }
+        throw new SQLException(String.format("column %s not found", s));
+    }
+
+    @Override
+    public Reader getCharacterStream(int i) throws SQLException {
+        String value = getString(i);
+        return value == null ? null : new StringReader(value);
+    }
+
+    @Override
+    public Reader getCharacterStream(String s) throws SQLException {
+        return getCharacterStream(findColumn(s));
+    }
+
+    @Override
+    public BigDecimal getBigDecimal(String s) throws SQLException {
+        return getBigDecimal(findColumn(s));
+    }
+
+    @Override
+    public boolean isBeforeFirst() throws SQLException {
+        checkOpen();
+        return row == 0 && rowCount > 0;
+    }
+
+    @Override
+    public boolean isAfterLast() throws SQLException {
+        checkOpen();
+        return row > rowCount && rowCount > 0;
+    }
+
+    @Override
+    public boolean isFirst() throws SQLException {
+        checkOpen();
+        return row == 1 && rowCount > 0;
+    }
+
+    @Override
+    public boolean isLast() throws SQLException {
+        checkOpen();
+        return row == rowCount && rowCount > 0;
+    }
+
+    @Override
+    public void beforeFirst() throws SQLException {
+        checkOpen();
+        row = 0;
+    }
+
+    @Override
+    public void afterLast() throws SQLException {
+        checkOpen();
+        row = rowCount + 1;
+    }
+
+    @Override
+    public boolean first() throws SQLException {
+        return absolute(1);
+    }
+
+    @Override
+    public boolean last() throws SQLException {
+        return absolute(-1);
+    }
+
+    @Override
+    public int getRow() throws SQLException {
+        checkOpen();
+        return row >= 1 && row <= rowCount ? row : 0;
+    }
+
+    @Override
+    public boolean absolute(int i) throws SQLException {
+        checkOpen();
+        int target = i >= 0 ? i : rowCount + 1 + i;
+        row = Math.max(0, Math.min(target, rowCount + 1));
+        return row >= 1 && row <= rowCount;
+    }
+
+    @Override
+    public boolean relative(int i) throws SQLException {
+        checkOpen();
+        row = Math.max(0, Math.min(row + i, rowCount + 1));
+        return row >= 1 && row <= rowCount;
+    }
+
+    @Override
+    public boolean previous() throws SQLException {
+        return relative(-1);
+    }
+
+    @Override
+    public void setFetchDirection(int i) throws SQLException {
+        if (i != FETCH_FORWARD && i != FETCH_REVERSE && i != FETCH_UNKNOWN) {
+            throw new SQLException(String.format("unknown fetch direction %d", i));
+        }
+    }
+
+    @Override
+    public int getFetchDirection() {
+        return FETCH_FORWARD;
+    }
+
+    @Override
+    public void setFetchSize(int i) {
+        fetchSize = i;
+    }
+
+    @Override
+    public int getFetchSize() {
+        return fetchSize;
+    }
+
+    @Override
+    public int getType() {
+        return TYPE_SCROLL_INSENSITIVE;
+    }
+
+    @Override
+    public int getConcurrency() {
+        return CONCUR_READ_ONLY;
+    }
+
+    @Override
+    public boolean rowUpdated() {
+        return false;
+    }
+
+    @Override
+    public boolean rowInserted() {
+        return false;
+    }
+
+    @Override
+    public boolean rowDeleted() {
+        return false;
+    }
+
+    @Override
+    public void insertRow() throws SQLException {
+        throw readOnly();
+    }
+
+    @Override
+    public void updateRow() throws SQLException {
+        throw readOnly();
+    }
+
+    @Override
+    public void deleteRow() throws SQLException {
+        throw readOnly();
+    }
+
+    @Override
+    public void refreshRow() {
+        // values are not changed
+    }
+
+    @Override
+    public void cancelRowUpdates() {
+        // no updates
+    }
+
+    @Override
+    public void moveToInsertRow() throws SQLException {
+        throw readOnly();
+    }
+
+    @Override
+    public void moveToCurrentRow() {
+        // insert row is not supported
+    }
+
+    @Override
+    public Statement getStatement() {
+        return null;
+    }
+
+    @Override
+    public Object getObject(int i, Map<String, Class<?>> map) throws SQLException {
+        return getObject(i);
+    }
+
+    @Override
+    public Ref getRef(int i) throws SQLException {
+        return (Ref) getObject(i);
+    }
+
+    @Override
+    public Blob getBlob(int i) throws SQLException {
+        return (Blob) getObject(i);
+    }
+
+    @Override
+    public Clob getClob(int i) throws SQLException {
+        return (Clob) getObject(i);
+    }
+
+    @Override
+    public Array getArray(int i) throws SQLException {
+        return (Array) getObject(i);
+    }
+
+    @Override
+    public Object getObject(String s, Map<String, Class<?>> map) throws SQLException {
+        return getObject(findColumn(s), map);
+    }
+
+    @Override
+    public Ref getRef(String s) throws SQLException {
+        return getRef(findColumn(s));
+    }
+
+    @Override
+    public Blob getBlob(String s) throws SQLException {
+        return getBlob(findColumn(s));
+    }
+
+    @Override
+    public Clob getClob(String s) throws SQLException {
+        return getClob(findColumn(s));
+    }
+
+    @Override
+    public Array getArray(String s) throws SQLException {
+        return getArray(findColumn(s));
+    }
+
+    @Override
+    public Date getDate(int i, Calendar calendar) throws SQLException {
+        return getDate(i);
+    }
+
+    @Override
+    public Date getDate(String s, Calendar calendar) throws SQLException {
+        return getDate(findColumn(s));
+    }
+
+    @Override
+    public Time getTime(int i, Calendar calendar) throws SQLException {
+        return getTime(i);
+    }
+
+    @Override
+    public Time getTime(String s, Calendar calendar) throws SQLException {
+        return getTime(findColumn(s));
+    }
+
+    @Override
+    public Timestamp getTimestamp(int i, Calendar calendar) throws SQLException {
+        return getTimestamp(i);
+    }
+
+    @Override
+    public Timestamp getTimestamp(String s, Calendar calendar) throws SQLException {
+        return getTimestamp(findColumn(s));
+    }
+
+    @Override
+    public URL getURL(int i) throws SQLException {
+        String value = getString(i);
+        try {
+            return value == null ? null : new URL(value);
+        } catch (MalformedURLException e) {
+            throw new SQLException(String.format("failed to convert %s to URL", value), e);
+        }
+    }
+
+    @Override
+    public URL getURL(String s) throws SQLException {
+        return getURL(findColumn(s));
+    }
+
+    @Override
+    public RowId getRowId(int i) throws SQLException {
+        return (RowId) getObject(i);
+    }
+
+    @Override
+    public RowId getRowId(String s) throws SQLException {
+        return getRowId(findColumn(s));
+    }
+
+    @Override
+    public int getHoldability() {
+        return HOLD_CURSORS_OVER_COMMIT;
+    }
+
+    @Override
+    public boolean isClosed() {
+        return closed;
+    }
+
+    @Override
+    public NClob getNClob(int i) throws SQLException {
+        return (NClob) getObject(i);
+    }
+
+    @Override
+    public NClob getNClob(String s) throws SQLException {
+        return getNClob(findColumn(s));
+    }
+
+    @Override
+    public SQLXML getSQLXML(int i) throws SQLException {
+        return (SQLXML) getObject(i);
+    }
+
+    @Override
+    public SQLXML getSQLXML(String s) throws SQLException {
+        return getSQLXML(findColumn(s));
+    }
+
+    @Override
+    public String getNString(int i) throws SQLException {
+        return getString(i);
+    }
+
+    @Override
+    public String getNString(String s) throws SQLException {
+        return getString(findColumn(s));
+    }
+
+    @Override
+    public Reader getNCharacterStream(int i) throws SQLException {
+        return getCharacterStream(i);
+    }
+
+    @Override
+    public Reader getNCharacterStream(String s) throws SQLException {
+        return getCharacterStream(findColumn(s));
+    }
+
+    @Override
+    public <T> T getObject(int i, Class<T> aClass) throws SQLException {
+        if (aClass == String.class) {
+            return aClass.cast(getString(i));
+        }
+        if (aClass == Integer.class) {
+            int value = getInt(i);
+            return wasNull ? null : aClass.cast(value);
+        }
+        if (aClass == Long.class) {
+            long value = getLong(i);
+            return wasNull ? null : aClass.cast(value);
+        }
+        if (aClass == Double.class) {
+            double value = getDouble(i);
+            return wasNull ? null : aClass.cast(value);
+        }
+        if (aClass == BigDecimal.class) {
+            return aClass.cast(getBigDecimal(i));
+        }
+        if (aClass == Boolean.class) {
+            boolean value = getBoolean(i);
+            return wasNull ? null : aClass.cast(value);
+        }
+        if (aClass == Date.class) {
+            return aClass.cast(getDate(i));
+        }
+        if (aClass == Time.class) {
+            return aClass.cast(getTime(i));
+        }
+        if (aClass == Timestamp.class) {
+            return aClass.cast(getTimestamp(i));
+        }
+        if (aClass == byte[].class) {
+            return aClass.cast(getBytes(i));
+        }
+        Object value = getObject(i);
+        if (value == null || aClass.isInstance(value)) {
+            return aClass.cast(value);
+        }
+        throw new SQLException(String.format("failed to convert %s to %s", value, aClass.getName()));
+    }
+
+    @Override
+    public <T> T getObject(String s, Class<T> aClass) throws SQLException {
+        return getObject(findColumn(s), aClass);
+    }
+
+    @Override
+    public void updateNull(int i) throws SQLException {
+        throw readOnly();
+    }
+
+    @Override
+    public void updateBoolean(int i, boolean x) throws SQLException {
+        throw readOnly();
+    }
+
+    @Override
+    public void updateByte(int i, byte x) throws SQLException {
+        throw readOnly();
+    }
+
+    @Override
+    public void updateShort(int i, short x) throws SQLException {
+        throw readOnly();
+    }
+
+    @Override
+    public void updateInt(int i, int x) throws SQLException {
+        throw readOnly();
+    }
+
+    @Override
+    public void updateLong(int i, long x) throws SQLException {
+        throw readOnly();
+    }
+
+    @Override
+    public void updateFloat(int i, float x) throws SQLException {
+        throw readOnly();
+    }
+
+    @Override
+    public void updateDouble(int i, double x) throws SQLException {
+        throw readOnly();
+    }
+
+    @Override
+    public void updateBigDecimal(int i, BigDecimal x) throws SQLException {
+        throw readOnly();
+    }
+
+    @Override
+    public void updateString(int i, String x) throws SQLException {
+        throw readOnly();
+    }
+
+    @Override
+    public void updateBytes(int i, byte[] x) throws SQLException {
+        throw readOnly();
+    }
+
+    @Override
+    public void updateDate(int i, Date x) throws SQLException {
+        throw readOnly();
+    }
+
+    @Override
+    public void updateTime(int i, Time x) throws SQLException {
+        throw readOnly();
+    }
+
+    @Override
+    public void updateTimestamp(int i, Timestamp x) throws SQLException {
+        throw readOnly();
+    }
+
+    @Override
+    public void updateAsciiStream(int i, InputStream x, int length) throws SQLException {
+        throw readOnly();
+    }
+
+    @Override
+    public void updateBinaryStream(int i, InputStream x, int length) throws SQLException {
+        throw readOnly();
+    }
+
+    @Override
+    public void updateCharacterStream(int i, Reader x, int length) throws SQLException {
+        throw readOnly();
+    }
+
+    @Override
+    public void updateObject(int i, Object x, int scaleOrLength) throws SQLException {
+        throw readOnly();
+    }
+
+    @Override
+    public void updateObject(int i, Object x) throws SQLException {
+        throw readOnly();
+    }
+
+    @Override
+    public void updateNull(String s) throws SQLException {
+        throw readOnly();
+    }
+
+    @Override
+    public void updateBoolean(String s, boolean x) throws SQLException {
+        throw readOnly();
+    }
+
+    @Override
+    public void updateByte(String s, byte x) throws SQLException {
+        throw readOnly();
+    }
+
+    @Override
+    public void updateShort(String s, short x) throws SQLException {
+        throw readOnly();
+    }
+
+    @Override
+    public void updateInt(String s, int x) throws SQLException {
+        throw readOnly();
+    }
+
+    @Override
+    public void updateLong(String s, long x) throws SQLException {
+        throw readOnly();
+    }
+
+    @Override
+    public void updateFloat(String s, float x) throws SQLException {
+        throw readOnly();
+    }
+
+    @Override
+    public void updateDouble(String s, double x) throws SQLException {
+        throw readOnly();
+    }
+
+    @Override
+    public void updateBigDecimal(String s, BigDecimal x) throws SQLException {
+        throw readOnly();
+    }
+
+    @Override
+    public void updateString(String s, String x) throws SQLException {
+        throw readOnly();
+    }
+
+    @Override
+    public void updateBytes(String s, byte[] x) throws SQLException {
+        throw readOnly();
+    }
+
+    @Override
+    public void updateDate(String s, Date x) throws SQLException {
+        throw readOnly();
+    }
+
+    @Override
+    public void updateTime(String s, Time x) throws SQLException {
+        throw readOnly();
+    }
+
+    @Override
+    public void updateTimestamp(String s, Timestamp x) throws SQLException {
+        throw readOnly();
+    }
+
+    @Override
+    public void updateAsciiStream(String s, InputStream x, int length) throws SQLException {
+        throw readOnly();
+    }
+
+    @Override
+    public void updateBinaryStream(String s, InputStream x, int length) throws SQLException {
+        throw readOnly();
+    }
+
+    @Override
+    public void updateCharacterStream(String s, Reader x, int length) throws SQLException {
+        throw readOnly();
+    }
+
+    @Override
+    public void updateObject(String s, Object x, int scaleOrLength) throws SQLException {
+        throw readOnly();
+    }
+
+    @Override
+    public void updateObject(String s, Object x) throws SQLException {
+        throw readOnly();
+    }
+
+    @Override
+    public void updateRef(int i, Ref x) throws SQLException {
+        throw readOnly();
+    }
+
+    @Override
+    public void updateRef(String s, Ref x) throws SQLException {
+        throw readOnly();
+    }
+
+    @Override
+    public void updateBlob(int i, Blob x) throws SQLException {
+        throw readOnly();
+    }
+
+    @Override
+    public void updateBlob(String s, Blob x) throws SQLException {
+        throw readOnly();
+    }
+
+    @Override
+    public void updateClob(int i, Clob x) throws SQLException {
+        throw readOnly();
+    }
+
+    @Override
+    public void updateClob(String s, Clob x) throws SQLException {
+        throw readOnly();
+    }
+
+    @Override
+    public void updateArray(int i, Array x) throws SQLException {
+        throw readOnly();
+    }
+
+    @Override
+    public void updateArray(String s, Array x) throws SQLException {
+        throw readOnly();
+    }
+
+    @Override
+    public void updateRowId(int i, RowId x) throws SQLException {
+        throw readOnly();
+    }
+
+    @Override
+    public void updateRowId(String s, RowId x) throws SQLException {
+        throw readOnly();
+    }
+
+    @Override
+    public void updateNString(int i, String x) throws SQLException {
+        throw readOnly();
+    }
+
+    @Override
+    public void updateNString(String s, String x) throws SQLException {
+        throw readOnly();
+    }
+
+    @Override
+    public void updateNClob(int i, NClob x) throws SQLException {
+        throw readOnly();
+    }
+
+    @Override
+    public void updateNClob(String s, NClob x) throws SQLException {
+        throw readOnly();
+    }
+
+    @Override
+    public void updateSQLXML(int i, SQLXML x) throws SQLException {
+        throw readOnly();
+    }
+
+    @Override
+    public void updateSQLXML(String s, SQLXML x) throws SQLException {
+        throw readOnly();
+    }
+
+    @Override
+    public void updateNCharacterStream(int i, Reader x, long length) throws SQLException {
+        throw readOnly();
+    }
+
+    @Override
+    public void updateNCharacterStream(String s, Reader x, long length) throws SQLException {
+        throw readOnly();
+    }
+
+    @Override
+    public void updateAsciiStream(int i, InputStream x, long length) throws SQLException {
+        throw readOnly();
+    }
+
+    @Override
+    public void updateBinaryStream(int i, InputStream x, long length) throws SQLException {
+        throw readOnly();
+    }
+
+    @Override
+    public void updateCharacterStream(int i, Reader x, long length) throws SQLException {
+        throw readOnly();
+    }
+
+    @Override
+    public void updateAsciiStream(String s, InputStream x, long length) throws SQLException {
+        throw readOnly();
+    }
+
+    @Override
+    public void updateBinaryStream(String s, InputStream x, long length) throws SQLException {
+        throw readOnly();
+    }
+
+    @Override
+    public void updateCharacterStream(String s, Reader x, long length) throws SQLException {
+        throw readOnly();
+    }
+
+    @Override
+    public void updateBlob(int i, InputStream x, long length) throws SQLException {
+        throw readOnly();
+    }
+
+    @Override
+    public void updateBlob(String s, InputStream x, long length) throws SQLException {
+        throw readOnly();
+    }
+
+    @Override
+    public void updateClob(int i, Reader x, long length) throws SQLException {
+        throw readOnly();
+    }
+
+    @Override
+    public void updateClob(String s, Reader x, long length) throws SQLException {
+        throw readOnly();
+    }
+
+    @Override
+    public void updateNClob(int i, Reader x, long length) throws SQLException {
+        throw readOnly();
+    }
+
+    @Override
+    public void updateNClob(String s, Reader x, long length) throws SQLException {
+        throw readOnly();
+    }
+
+    @Override
+    public void updateNCharacterStream(int i, Reader x) throws SQLException {
+        throw readOnly();
+    }
+
+    @Override
+    public void updateNCharacterStream(String s, Reader x) throws SQLException {
+        throw readOnly();
+    }
+
+    @Override
+    public void updateAsciiStream(int i, InputStream x) throws SQLException {
+        throw readOnly();
+    }
+
+    @Override
+    public void updateBinaryStream(int i, InputStream x) throws SQLException {
+        throw readOnly();
+    }
+
+    @Override
+    public void updateCharacterStream(int i, Reader x) throws SQLException {
+        throw readOnly();
+    }
+
+    @Override
+    public void updateAsciiStream(String s, InputStream x) throws SQLException {
+        throw readOnly();
+    }
+
+    @Override
+    public void updateBinaryStream(String s, InputStream x) throws SQLException {
+        throw readOnly();
+    }
+
+    @Override
+    public void updateCharacterStream(String s, Reader x) throws SQLException {
+        throw readOnly();
+    }
+
+    @Override
+    public void updateBlob(int i, InputStream x) throws SQLException {
+        throw readOnly();
+    }
+
+    @Override
+    public void updateBlob(String s, InputStream x) throws SQLException {
+        throw readOnly();
+    }
+
+    @Override
+    public void updateClob(int i, Reader x) throws SQLException {
+        throw readOnly();
+    }
+
+    @Override
+    public void updateClob(String s, Reader x) throws SQLException {
+        throw readOnly();
+    }
+
+    @Override
+    public void updateNClob(int i, Reader x) throws SQLException {
+        throw readOnly();
+    }
+
+    @Override
+    public void updateNClob(String s, Reader x) throws SQLException {
+        throw readOnly();
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> aClass) throws SQLException {
+        if (isWrapperFor(aClass)) {
+            return aClass.cast(this);
+        }
+        throw new SQLException(String.format("not a wrapper for %s", aClass.getName()));
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> aClass) {
+        return aClass.isInstance(this);
+    }
+
+    /**
+     * decoded values of a column
+     */
+    private abstract static class Column {
+        final BitSet nulls = new BitSet();
+
+        abstract Object get(int row);
+
+        String raw(int row) {
+            Object value = get(row);
+            return value == null ? null : value.toString();
+        }
+
+        String getString(int row) throws SQLException {
+            return JdbcValues.toString(get(row));
+        }
+
+        long getLong(int row) throws SQLException {
+            return JdbcValues.toLong(get(row));
+        }
+
+        double getDouble(int row) throws SQLException {
+            return JdbcValues.toDouble(get(row));
+        }
+
+        BigDecimal getBigDecimal(int row) throws SQLException {
+            return JdbcValues.toBigDecimal(get(row), raw(row));
+        }
+    }
+
+    private static class IntColumn extends Column {
+        final int[] values;
+        final boolean shortType;
+
+        IntColumn(int[] values, boolean shortType) {
+            this.values = values;
+            this.shortType = shortType;
+        }
+
+        @Override
+        Object get(int row) {
+            return shortType ? (Object) (short) values[row] : (Object) values[row];
+        }
+
+        @Override
+        String getString(int row) {
+            return Integer.toString(values[row]);
+        }
+
+        @Override
+        long getLong(int row) {
+            return values[row];
+        }
+
+        @Override
+        double getDouble(int row) {
+            return values[row];
+        }
+
+        @Override
+        BigDecimal getBigDecimal(int row) {
+            return BigDecimal.valueOf(values[row]);
+        }
+    }
+
+    private static class LongColumn extends Column {
+        final long[] values;
+
+        LongColumn(long[] values) {
+            this.values = values;
+        }
+
+        @Override
+        Object get(int row) {
+            return values[row];
+        }
+
+        @Override
+        String getString(int row) {
+            return Long.toString(values[row]);
+        }
+
+        @Override
+        long getLong(int row) {
+            return values[row];
+        }
+
+        @Override
+        double getDouble(int row) {
+            return values[row];
+        }
+
+        @Override
+        BigDecimal getBigDecimal(int row) {
+            return BigDecimal.valueOf(values[row]);
+        }
+    }
+
+    private static class DoubleColumn extends Column {
+        final double[] values;
+        final boolean floatType;
+
+        DoubleColumn(double[] values, boolean floatType) {
+            this.values = values;
+            this.floatType = floatType;
+        }
+
+        @Override
+        Object get(int row) {
+            return floatType ? (Object) (float) values[row] : (Object) values[row];
+        }
+
+        @Override
+        String getString(int row) {
+            return floatType ? Float.toString((float) values[row]) : Double.toString(values[row]);
+        }
+
+        @Override
+        long getLong(int row) {
+            return (long) values[row];
+        }
+
+        @Override
+        double getDouble(int row) {
+            return values[row];
+        }
+
+        @Override
+        BigDecimal getBigDecimal(int row) throws SQLException {
+            if (Double.isNaN(values[row]) || Double.isInfinite(values[row])) {
+                throw new SQLException(String.format("failed to convert %s to BigDecimal", values[row]));
+            }
+            return new BigDecimal(getString(row));
+        }
+    }
+
+    /**
+     * decoded values are shared by copies of the resultSet, so mutable values are copied on read
+     */
+    private static class ObjectColumn extends Column {
+        final Object[] values;
+        final String[] raw;
+        final int type;
+        final String typeName;
+
+        ObjectColumn(Object[] values, String[] raw, int type, String typeName) {
+            this.values = values;
+            this.raw = raw;
+            this.type = type;
+            this.typeName = typeName;
+        }
+
+        @Override
+        Object get(int row) {
+            Object value = values[row];
+            if (value == null || value instanceof String || value instanceof Number || value instanceof Boolean) {
+                return value;
+            }
+            if (value instanceof java.util.Date) {
+                return ((java.util.Date) value).clone();
+            }
+            if (value instanceof byte[]) {
+                return ((byte[]) value).clone();
+            }
+            // e.g. LOBs, they are decoded again
+            return ResultSetUtil.decodeValue(raw[row], type, typeName);
+        }
+
+        @Override
+        String raw(int row) {
+            return raw[row];
+        }
+
+        @Override
+        String getString(int row) throws SQLException {
+            return JdbcValues.toString(values[row]);
+        }
+
+        @Override
+        long getLong(int row) throws SQLException {
+            return JdbcValues.toLong(values[row]);
+        }
+
+        @Override
+        double getDouble(int row) throws SQLException {
+            return JdbcValues.toDouble(values[row]);
+        }
+
+        @Override
+        BigDecimal getBigDecimal(int row) throws SQLException {
+            return JdbcValues.toBigDecimal(values[row], raw[row]);
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package org.anystub.jdbc;
+
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+
+import static java.sql.Types.BIGINT;
+import static java.sql.Types.DECIMAL;
+import static java.sql.Types.DOUBLE;
+import static java.sql.Types.FLOAT;
+import static java.sql.Types.INTEGER;
+import static java.sql.Types.NUMERIC;
+import static java.sql.Types.REAL;
+import static java.sql.Types.SMALLINT;
+import static java.sql.Types.TINYINT;
+
+/**
+ * metadata of {@link ColumnarResultSet} restored from the recorded header
+ */
+class ColumnarResultSetMetaData implements ResultSetMetaData {
+
+    private final ColumnarResultSet resultSet;
+
+    ColumnarResultSetMetaData(ColumnarResultSet resultSet) {
+        this.resultSet = resultSet;
+    }
+
+    private int check(int column) throws SQLException {
+        if (column < 1 || column > resultSet.columnCount()) {
+            throw new SQLException(String.format("column index %d out of range", column));
+        }
+        return column;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return resultSet.columnCount();
+    }
+
+    @Override
+    public boolean isAutoIncrement(int i) throws SQLException {
+        check(i);
+        return false;
+    }
+
+    @Override
+    public boolean isCaseSensitive(int i) throws SQLException {
+        check(i);
+        return true;
+    }
+
+    @Override
+    public boolean isSearchable(int i) throws SQLException {
+        check(i);
+        return true;
+    }
+
+    @Override
+    public boolean isCurrency(int i) throws SQLException {
+        check(i);
+        return false;
+    }
+
+    @Override
+    public int isNullable(int i) throws SQLException {
+        check(i);
+        return columnNullableUnknown;
+    }
+
+    @Override
+    public boolean isSigned(int i) throws SQLException {
+        switch (getColumnType(i)) {
+            case TINYINT:
+            case SMALLINT:
+            case INTEGER:
+            case BIGINT:
+            case FLOAT:
+            case REAL:
+            case DOUBLE:
+            case NUMERIC:
+            case DECIMAL:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    @Override
+    public int getColumnDisplaySize(int i) throws SQLException {
+        return resultSet.precision(check(i));
+    }
+
+    @Override
+    public String getColumnLabel(int i) throws SQLException {
+        return resultSet.columnLabel(check(i));
+    }
+
+    @Override
+    public String getColumnName(int i) throws SQLException {
+        return resultSet.columnName(check(i));
+    }
+
+    @Override
+    public String getSchemaName(int i) throws SQLException {
+        check(i);
+        return "";
+    }
+
+    @Override
+    public int getPrecision(int i) throws SQLException {
+        return resultSet.precision(check(i));
+    }
+
+    @Override
+    public int getScale(int i) throws SQLException {
+        return resultSet.scale(check(i));
+    }
+
+    @Override
+    public String getTableName(int i) throws SQLException {
+        check(i);
+        return "";
+    }
+
+    @Override
+    public String getCatalogName(int i) throws SQLException {
+        check(i);
+        return "";
+    }
+
+    @Override
+    public int getColumnType(int i) throws SQLException {
+        return resultSet.columnType(check(i));
+    }
+
+    @Override
+    public String getColumnTypeName(int i) throws SQLException {
+        return resultSet.columnTypeName(check(i));
+    }
+
+    @Override
+    public boolean isReadOnly(int i) throws SQLException {
+        check(i);
+        return true;
+    }
+
+    @Override
+    public boolean isWritable(int i) throws SQLException {
+        check(i);
+        return false;
+    }
+
+    @Override
+    public boolean isDefinitelyWritable(int i) throws SQLException {
+        check(i);
+        return false;
+    }
+
+    @Override
+    public String getColumnClassName(int i) throws SQLException {
+        switch (getColumnType(i)) {
+            case TINYINT:
+            case SMALLINT:
+                return Short.class.getName();
+            case INTEGER:
+                return Integer.class.getName();
+            case BIGINT:
+                return Long.class.getName();
+            case FLOAT:
+                return Float.class.getName();
+            case NUMERIC:
+            case DECIMAL:
+            case REAL:
+            case DOUBLE:
+                return Double.class.getName();
+            default:
+                return Object.class.getName();
+        }
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> aClass) throws SQLException {
+        if (isWrapperFor(aClass)) {
+            return aClass.cast(this);
+        }
+        throw new SQLException(String.format("not a wrapper for %s", aClass.getName()));
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> aClass) {
+        return aClass.isInstance(this);
+    }
+}
@@ -1,12 +1,20 @@
 package org.anystub.jdbc;
 
-import org.anystub.Decoder;
+import org.anystub.ReusableDecoder;
 
 import java.sql.ResultSet;
 
-public class DecoderResultSet implements Decoder<ResultSet> {
+/**
+ * restores resultSets, memoized resultSets are copied on every replay, see {@link ColumnarResultSet#copy()}
+ */
+public class DecoderResultSet implements ReusableDecoder<ResultSet> {
     @Override
     public ResultSet decode(Iterable<String> values) {
         return ResultSetUtil.decode(values);
     }
+
+    @Override
+    public ResultSet reuse(ResultSet decoded) {
+        return ((ColumnarResultSet) decoded).copy();
+    }
 }
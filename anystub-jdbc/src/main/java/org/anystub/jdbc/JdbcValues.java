@@ -0,0 +1,158 @@
+package org.anystub.jdbc;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import org.anystub.ObjectMapperFactory;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Blob;
+import java.sql.Clob;
+import java.sql.Date;
+import java.sql.SQLException;
+import java.sql.Time;
+import java.sql.Timestamp;
+
+/**
+ * converts decoded values of a stubbed resultSet to types requested by getters
+ */
+final class JdbcValues {
+
+    private JdbcValues() {
+    }
+
+    static String toString(Object value) throws SQLException {
+        if (value instanceof Clob) {
+            Clob clob = (Clob) value;
+            return clob.getSubString(1, (int) clob.length());
+        }
+        return value == null ? null : value.toString();
+    }
+
+    static boolean toBoolean(Object value) {
+        if (value == null) {
+            return false;
+        }
+        if (value instanceof Boolean) {
+            return (Boolean) value;
+        }
+        if (value instanceof Number) {
+            return ((Number) value).intValue() != 0;
+        }
+        String s = value.toString().trim();
+        return s.equalsIgnoreCase("true") || s.equals("1");
+    }
+
+    static long toLong(Object value) throws SQLException {
+        if (value == null) {
+            return 0L;
+        }
+        if (value instanceof Number) {
+            return ((Number) value).longValue();
+        }
+        if (value instanceof Boolean) {
+            return (Boolean) value ? 1L : 0L;
+        }
+        try {
+            return new BigDecimal(value.toString().trim()).longValue();
+        } catch (NumberFormatException e) {
+            throw new SQLException(String.format("failed to convert %s to long", value), e);
+        }
+    }
+
+    static double toDouble(Object value) throws SQLException {
+        if (value == null) {
+            return 0.0;
+        }
+        if (value instanceof Number) {
+            return ((Number) value).doubleValue();
+        }
+        try {
+            return Double.parseDouble(value.toString().trim());
+        } catch (NumberFormatException e) {
+            throw new SQLException(String.format("failed to convert %s to double", value), e);
+        }
+    }
+
+    /**
+     * @param value decoded value
+     * @param raw   encoded value, keeps all digits of the recorded number
+     * @return converted value
+     * @throws SQLException if the value is not a number
+     */
+    static BigDecimal toBigDecimal(Object value, String raw) throws SQLException {
+        if (value == null) {
+            return null;
+        }
+        if (value instanceof BigDecimal) {
+            return (BigDecimal) value;
+        }
+        try {
+            return new BigDecimal(raw.trim());
+        } catch (NumberFormatException e) {
+            if (value instanceof Number) {
+                return BigDecimal.valueOf(((Number) value).doubleValue());
+            }
+            throw new SQLException(String.format("failed to convert %s to BigDecimal", value), e);
+        }
+    }
+
+    static byte[] toBytes(Object value, String raw) throws SQLException {
+        if (value == null) {
+            return null;
+        }
+        if (value instanceof byte[]) {
+            return (byte[]) value;
+        }
+        if (value instanceof Blob) {
+            Blob blob = (Blob) value;
+            return blob.getBytes(1, (int) blob.length());
+        }
+        try {
+            return ObjectMapperFactory.get().readValue(raw, byte[].class);
+        } catch (JsonProcessingException e) {
+            return raw.getBytes(StandardCharsets.UTF_8);
+        }
+    }
+
+    static Date toDate(Object value) throws SQLException {
+        if (value == null || value instanceof Date) {
+            return (Date) value;
+        }
+        if (value instanceof java.util.Date) {
+            return new Date(((java.util.Date) value).getTime());
+        }
+        try {
+            return Date.valueOf(value.toString().trim());
+        } catch (IllegalArgumentException e) {
+            throw new SQLException(String.format("failed to convert %s to Date", value), e);
+        }
+    }
+
+    static Time toTime(Object value) throws SQLException {
+        if (value == null || value instanceof Time) {
+            return (Time) value;
+        }
+        if (value instanceof java.util.Date) {
+            return new Time(((java.util.Date) value).getTime());
+        }
+        try {
+            return Time.valueOf(value.toString().trim());
+        } catch (IllegalArgumentException e) {
+            throw new SQLException(String.format("failed to convert %s to Time", value), e);
+        }
+    }
+
+    static Timestamp toTimestamp(Object value) throws SQLException {
+        if (value == null || value instanceof Timestamp) {
+            return (Timestamp) value;
+        }
+        if (value instanceof java.util.Date) {
+            return new Timestamp(((java.util.Date) value).getTime());
+        }
+        try {
+            return Timestamp.valueOf(value.toString().trim());
+        } catch (IllegalArgumentException e) {
+            throw new SQLException(String.format("failed to convert %s to Timestamp", value), e);
+        }
+    }
+}
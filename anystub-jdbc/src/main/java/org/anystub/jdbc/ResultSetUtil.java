@@ -3,7 +3,6 @@ package org.anystub.jdbc;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.anystub.ObjectMapperFactory;
-import org.h2.tools.SimpleResultSet;
 
 import java.sql.Date;
 import java.sql.PreparedStatement;
@@ -16,11 +15,8 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.util.ArrayList;
-import java.util.HashSet;
-import java.util.Iterator;
 import java.util.List;
 import java.util.NoSuchElementException;
-import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
@@ -61,6 +57,10 @@ public class ResultSetUtil {
         adapters.put(typeName, adapter);
     }
 
+    static boolean hasTypeAdapter(String typeName) {
+        return typeName != null && adapters.containsKey(typeName);
+    }
+
     public static void enableMsSql() {
         registerTypeAdapter("uniqueidentifier", next ->
                 next == null || next.isEmpty() ? null : UUID.fromString(next));
@@ -98,6 +98,23 @@ public class ResultSetUtil {
         return res;
     }
 
+    /**
+     * encodes values of the current row of a resultSet
+     *
+     * @param resultSet         resultSet positioned on a row
+     * @param resultSetMetaData metadata of the resultSet
+     * @return encoded values of the row, null for SQL NULL
+     * @throws SQLException if metadata is not accessible
+     */
+    public static List<String> encodeRow(ResultSet resultSet, ResultSetMetaData resultSetMetaData) throws SQLException {
+        int columnCount = resultSetMetaData.getColumnCount();
+        List<String> res = new ArrayList<>(columnCount);
+        for (int i = 1; i <= columnCount; i++) {
+            res.add(encodeValue(resultSet, resultSetMetaData.getColumnType(i), i));
+        }
+        return res;
+    }
+
     public static List<String> encode(ResultSet resultSet, ResultSetMetaData resultSetMetaData) {
         List<String> res;
         try {
@@ -129,58 +146,15 @@ public class ResultSetUtil {
         return encode;
     }
 
-    public static SimpleResultSet decode(Iterable<String> values) {
-        // * support aliases in SimpleResultSet it creates 2nd column, and put copy of the data
-        final SimpleResultSet simpleResultSet = new SimpleResultSet();
-        // * keeps column numbers, to double values
-        final Set<Integer> doubleColumnIndexes = new HashSet<>();
-        final List<Integer> decodedValueTypes = new ArrayList<>();
-        final List<String> decodedValueTypeNames = new ArrayList<>();
-
-        Iterator<String> it = values.iterator();
-        if (it.hasNext()) {
-            int columnCount = Integer.parseInt(it.next());
-            for (int i = 0; i < columnCount; i++) {
-                String cNameLabel = it.next();
-                String cTypeName = it.next();
-                int cType = Integer.parseInt(it.next());
-                int cPrecision = Integer.parseInt(it.next());
-                int cScale = Integer.parseInt(it.next());
-
-                decodedValueTypes.add(cType);
-                decodedValueTypeNames.add(cTypeName);
-                String[] split = cNameLabel.split("/");
-
-                if (split.length == 2 && split[0] != null && !split[0].equalsIgnoreCase(split[1])) {
-                    simpleResultSet.addColumn(split[0], cType, cTypeName, cPrecision, cScale);
-                    simpleResultSet.addColumn(split[1], cType, cTypeName, cPrecision, cScale);
-                    doubleColumnIndexes.add(i);
-                } else {
-                    simpleResultSet.addColumn(cNameLabel, cType, cTypeName, cPrecision, cScale);
-                }
-            }
-            while (it.hasNext() && columnCount > 0) {
-                ArrayList<Object> row = new ArrayList<>();
-                for (int i = 0; i < columnCount; i++) {
-                    String next = it.next();
-                    Object item = null;
-                    Function<String, ?> stringFunction = adapters.get(decodedValueTypeNames.get(i));
-                    if (stringFunction != null) {
-                        item = stringFunction.apply(next);
-                    }
-                    if (item == null) {
-                        item = decodeValue(next, decodedValueTypes.get(i));
-                    }
-
-                    row.add(item);
-                    if (doubleColumnIndexes.contains(i)) {
-                        row.add(item);
-                    }
-                }
-                simpleResultSet.addRow((Object[]) row.toArray(new Object[0]));
-            }
-        }
-        return simpleResultSet;
+    /**
+     * restores a resultSet recorded by {@link #encode(ResultSet)},
+     * values of a column are decoded on first access to the column
+     *
+     * @param values encoded header and data
+     * @return read-only resultSet
+     */
+    public static ColumnarResultSet decode(Iterable<String> values) {
+        return new ColumnarResultSet(values);
     }
 
     private static String encodeValue(ResultSet resultSet, int columnType, int column) {
@@ -261,6 +235,26 @@ public class ResultSetUtil {
         }
     }
 
+    /**
+     * decodes a value using a registered type adapter for the type name if any
+     *
+     * @param next           encoded value
+     * @param columnType     sql type of the column
+     * @param columnTypeName database specific type name
+     * @return decoded value
+     */
+    static Object decodeValue(String next, int columnType, String columnTypeName) {
+        Object item = null;
+        Function<String, ?> stringFunction = adapters.get(columnTypeName);
+        if (stringFunction != null) {
+            item = stringFunction.apply(next);
+        }
+        if (item == null) {
+            item = decodeValue(next, columnType);
+        }
+        return item;
+    }
+
     public static Object decodeValue(String next, int columnType) {
         if (next == null) {
             return null;
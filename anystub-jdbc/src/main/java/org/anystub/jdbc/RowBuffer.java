@@ -0,0 +1,143 @@
+package org.anystub.jdbc;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.SQLException;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * keeps the header of a stubbed resultSet and values of the current row.
+ * values are decoded on first access and converted for getters of {@link StubRowResultSet}
+ */
+class RowBuffer {
+
+    private final String[] names;
+    private final String[] labels;
+    private final String[] typeNames;
+    private final int[] types;
+
+    private String[] cells = null;
+    private Object[] decoded = null;
+    private boolean wasNull = false;
+
+    /**
+     * @param header encoded header of resultSet, see {@link ResultSetUtil#encodeHeader}
+     */
+    RowBuffer(Iterable<String> header) {
+        Iterator<String> it = header.iterator();
+        int columnCount = it.hasNext() ? Integer.parseInt(it.next()) : 0;
+        names = new String[columnCount];
+        labels = new String[columnCount];
+        typeNames = new String[columnCount];
+        types = new int[columnCount];
+        for (int i = 0; i < columnCount; i++) {
+            String[] split = it.next().split("/");
+            names[i] = split[0];
+            labels[i] = split.length == 2 ? split[1] : split[0];
+            typeNames[i] = it.next();
+            types[i] = Integer.parseInt(it.next());
+            // precision
+            it.next();
+            // scale
+            it.next();
+        }
+    }
+
+    int columnCount() {
+        return types.length;
+    }
+
+    /**
+     * replaces current row
+     *
+     * @param row encoded values of the row, null if there is no current row
+     */
+    void set(List<String> row) {
+        wasNull = false;
+        if (row == null) {
+            cells = null;
+            decoded = null;
+            return;
+        }
+        cells = row.toArray(new String[0]);
+        decoded = new Object[cells.length];
+    }
+
+    boolean wasNull() {
+        return wasNull;
+    }
+
+    int findColumn(String label) throws SQLException {
+        for (int i = 0; i < labels.length; i++) {
+            if (labels[i].equalsIgnoreCase(label)) {
+                return i + 1;
+            }
+        }
+        for (int i = 0; i < names.length; i++) {
+            if (names[i].equalsIgnoreCase(label)) {
+                return i + 1;
+            }
+        }
+        throw new SQLException(String.format("column %s not found", label));
+    }
+
+    Object get(int column) throws SQLException {
+        if (cells == null) {
+            throw new SQLException("no current row");
+        }
+        if (column < 1 || column > cells.length) {
+            throw new SQLException(String.format("column index %d out of range", column));
+        }
+        int i = column - 1;
+        if (cells[i] == null) {
+            wasNull = true;
+            return null;
+        }
+        wasNull = false;
+        if (decoded[i] == null) {
+            decoded[i] = i < types.length ?
+                    ResultSetUtil.decodeValue(cells[i], types[i], typeNames[i]) :
+                    cells[i];
+        }
+        return decoded[i];
+    }
+
+    String getString(int column) throws SQLException {
+        return JdbcValues.toString(get(column));
+    }
+
+    boolean getBoolean(int column) throws SQLException {
+        return JdbcValues.toBoolean(get(column));
+    }
+
+    long getLong(int column) throws SQLException {
+        return JdbcValues.toLong(get(column));
+    }
+
+    double getDouble(int column) throws SQLException {
+        return JdbcValues.toDouble(get(column));
+    }
+
+    BigDecimal getBigDecimal(int column) throws SQLException {
+        return JdbcValues.toBigDecimal(get(column), cells[column - 1]);
+    }
+
+    byte[] getBytes(int column) throws SQLException {
+        return JdbcValues.toBytes(get(column), cells[column - 1]);
+    }
+
+    Date getDate(int column) throws SQLException {
+        return JdbcValues.toDate(get(column));
+    }
+
+    Time getTime(int column) throws SQLException {
+        return JdbcValues.toTime(get(column));
+    }
+
+    Timestamp getTimestamp(int column) throws SQLException {
+        return JdbcValues.toTimestamp(get(column));
+    }
+}
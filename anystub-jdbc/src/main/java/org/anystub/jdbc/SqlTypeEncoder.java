@@ -4,9 +4,9 @@ import org.anystub.StringUtil;
 
 import javax.sql.rowset.serial.SerialBlob;
 import javax.sql.rowset.serial.SerialClob;
-import java.io.CharArrayWriter;
 import java.io.IOException;
 import java.io.Reader;
+import java.nio.charset.StandardCharsets;
 import java.sql.Blob;
 import java.sql.Clob;
 import java.sql.NClob;
@@ -45,26 +45,16 @@ public class SqlTypeEncoder {
 
     public static Clob decodeClob(String next) {
         byte[] bytes = StringUtil.recoverBinaryData(next);
-        try (CharArrayWriter charArrayWriter = new CharArrayWriter()) {
-            for (byte b : bytes) {
-                charArrayWriter.write(b);
-            }
-            return new SerialClob(charArrayWriter.toCharArray());
+        try {
+            return new SerialClob(new String(bytes, StandardCharsets.UTF_8).toCharArray());
         } catch (SQLException e) {
             throw new UnsupportedOperationException("failed to recover blob", e);
         }
     }
 
     public static String encodeClob(Clob clob) {
-        try (Reader characterStream = clob.getCharacterStream();
-             CharArrayWriter charArrayWriter = new CharArrayWriter()) {
-
-            int i;
-            while ((i = characterStream.read()) != -1) {
-                charArrayWriter.write(i);
-            }
-
-            return  StringUtil.toCharacterString(charArrayWriter.toString().getBytes());
+        try (Reader characterStream = clob.getCharacterStream()) {
+            return StringUtil.toCharacterString(characterStream, StandardCharsets.UTF_8);
         } catch (SQLException | IOException e) {
             throw new UnsupportedOperationException("failed to extract clob", e);
         }
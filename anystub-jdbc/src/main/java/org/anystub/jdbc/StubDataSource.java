@@ -16,6 +16,7 @@ public class StubDataSource implements DataSource {
     private final DataSource realDataSource;
     private Base base = null;
     private boolean isStubResultSetMode = false;
+    private boolean isRowBatchMode = false;
 
     public StubDataSource(DataSource realDataSource) {
         this.realDataSource = realDataSource;
@@ -115,4 +116,21 @@ public class StubDataSource implements DataSource {
     public boolean isStubResultSetMode() {
         return isStubResultSetMode;
     }
+
+    /**
+     * in stub-ResultSet mode keeps every row of a resultSet in one document,
+     * getters of the resultSet read values of the current row without requests to the stub.
+     * stubs recorded in one mode are not compatible with the other one
+     *
+     * @param rowBatchMode true to keep rows in documents
+     * @return this
+     */
+    public StubDataSource setRowBatchMode(boolean rowBatchMode) {
+        isRowBatchMode = rowBatchMode;
+        return this;
+    }
+
+    public boolean isRowBatchMode() {
+        return isRowBatchMode;
+    }
 }
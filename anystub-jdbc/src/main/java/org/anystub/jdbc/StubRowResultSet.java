@@ -0,0 +1,258 @@
+package org.anystub.jdbc;
+
+import org.anystub.Supplier;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Blob;
+import java.sql.Clob;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.util.Collections.singletonList;
+
+/**
+ * stubbed resultSet which keeps a whole row in one document.
+ * next() requests the row, getters read values of the current row from {@link RowBuffer}
+ * without requests to the stub.
+ * a document of the row keeps "true" and encoded values, the last document of the cursor keeps "false".
+ * methods not related to values of the row work as in {@link StubResultSet}
+ */
+public class StubRowResultSet extends StubResultSet {
+
+    private static final String HAS_ROW = "true";
+    private static final String NO_ROW = "false";
+
+    private final StubConnection stubConnection;
+    private final RowBuffer buffer;
+
+    public StubRowResultSet(StubConnection stubConnection,
+                            String[] statementId,
+                            Supplier<ResultSet, SQLException> resultSetSQLExceptionSupplier,
+                            Iterable<String> header) throws SQLException {
+        super(stubConnection, statementId, resultSetSQLExceptionSupplier);
+        this.stubConnection = stubConnection;
+        this.buffer = new RowBuffer(header);
+    }
+
+    @Override
+    public boolean next() throws SQLException {
+        List<String> row = stubConnection
+                .getStubDataSource()
+                .getBase()
+                .request2(new Supplier<List<String>, SQLException>() {
+                              @Override
+                              public List<String> get() throws SQLException {
+                                  stubConnection.runSql();
+                                  ResultSet resultSet = getRealResultSet();
+                                  if (!resultSet.next()) {
+                                      return singletonList(NO_ROW);
+                                  }
+                                  List<String> res = new ArrayList<>();
+                                  res.add(HAS_ROW);
+                                  res.addAll(ResultSetUtil.encodeRow(resultSet, resultSet.getMetaData()));
+                                  return res;
+                              }
+                          },
+                        values -> {
+                            List<String> res = new ArrayList<>();
+                            values.forEach(res::add);
+                            return res;
+                        },
+                        values -> values,
+                        callKey("row"));
+
+        if (row == null || row.isEmpty() || !HAS_ROW.equals(row.get(0))) {
+            buffer.set(null);
+            return false;
+        }
+        buffer.set(row.subList(1, row.size()));
+        return true;
+    }
+
+    @Override
+    public boolean wasNull() {
+        return buffer.wasNull();
+    }
+
+    @Override
+    public int findColumn(String s) throws SQLException {
+        return buffer.findColumn(s);
+    }
+
+    @Override
+    public String getString(int i) throws SQLException {
+        return buffer.getString(i);
+    }
+
+    @Override
+    public boolean getBoolean(int i) throws SQLException {
+        return buffer.getBoolean(i);
+    }
+
+    @Override
+    public byte getByte(int i) throws SQLException {
+        return (byte) buffer.getLong(i);
+    }
+
+    @Override
+    public short getShort(int i) throws SQLException {
+        return (short) buffer.getLong(i);
+    }
+
+    @Override
+    public int getInt(int i) throws SQLException {
+        return (int) buffer.getLong(i);
+    }
+
+    @Override
+    public long getLong(int i) throws SQLException {
+        return buffer.getLong(i);
+    }
+
+    @Override
+    public float getFloat(int i) throws SQLException {
+        return (float) buffer.getDouble(i);
+    }
+
+    @Override
+    public double getDouble(int i) throws SQLException {
+        return buffer.getDouble(i);
+    }
+
+    @Override
+    public BigDecimal getBigDecimal(int i, int scale) throws SQLException {
+        BigDecimal value = buffer.getBigDecimal(i);
+        return value == null ? null : value.setScale(scale, RoundingMode.HALF_UP);
+    }
+
+    @Override
+    public BigDecimal getBigDecimal(int i) throws SQLException {
+        return buffer.getBigDecimal(i);
+    }
+
+    @Override
+    public byte[] getBytes(int i) throws SQLException {
+        return buffer.getBytes(i);
+    }
+
+    @Override
+    public Date getDate(int i) throws SQLException {
+        return buffer.getDate(i);
+    }
+
+    @Override
+    public Time getTime(int i) throws SQLException {
+        return buffer.getTime(i);
+    }
+
+    @Override
+    public Timestamp getTimestamp(int i) throws SQLException {
+        return buffer.getTimestamp(i);
+    }
+
+    @Override
+    public Object getObject(int i) throws SQLException {
+        return buffer.get(i);
+    }
+
+    @Override
+    public Blob getBlob(int i) throws SQLException {
+        return (Blob) buffer.get(i);
+    }
+
+    @Override
+    public Clob getClob(int i) throws SQLException {
+        return (Clob) buffer.get(i);
+    }
+
+    @Override
+    public String getString(String s) throws SQLException {
+        return getString(findColumn(s));
+    }
+
+    @Override
+    public boolean getBoolean(String s) throws SQLException {
+        return getBoolean(findColumn(s));
+    }
+
+    @Override
+    public byte getByte(String s) throws SQLException {
+        return getByte(findColumn(s));
+    }
+
+    @Override
+    public short getShort(String s) throws SQLException {
+        return getShort(findColumn(s));
+    }
+
+    @Override
+    public int getInt(String s) throws SQLException {
+        return getInt(findColumn(s));
+    }
+
+    @Override
+    public long getLong(String s) throws SQLException {
+        return getLong(findColumn(s));
+    }
+
+    @Override
+    public float getFloat(String s) throws SQLException {
+        return getFloat(findColumn(s));
+    }
+
+    @Override
+    public double getDouble(String s) throws SQLException {
+        return getDouble(findColumn(s));
+    }
+
+    @Override
+    public BigDecimal getBigDecimal(String s, int scale) throws SQLException {
+        return getBigDecimal(findColumn(s), scale);
+    }
+
+    @Override
+    public BigDecimal getBigDecimal(String s) throws SQLException {
+        return getBigDecimal(findColumn(s));
+    }
+
+    @Override
+    public byte[] getBytes(String s) throws SQLException {
+        return getBytes(findColumn(s));
+    }
+
+    @Override
+    public Date getDate(String s) throws SQLException {
+        return getDate(findColumn(s));
+    }
+
+    @Override
+    public Time getTime(String s) throws SQLException {
+        return getTime(findColumn(s));
+    }
+
+    @Override
+    public Timestamp getTimestamp(String s) throws SQLException {
+        return getTimestamp(findColumn(s));
+    }
+
+    @Override
+    public Object getObject(String s) throws SQLException {
+        return getObject(findColumn(s));
+    }
+
+    @Override
+    public Blob getBlob(String s) throws SQLException {
+        return getBlob(findColumn(s));
+    }
+
+    @Override
+    public Clob getClob(String s) throws SQLException {
+        return getClob(findColumn(s));
+    }
+}
@@ -648,6 +648,17 @@ public class StubStatement implements Statement {
         }
     }
 
+    protected StubResultSet decodeStubResultSet(Supplier<ResultSet, SQLException> rsSupplier, Iterable<String> header) {
+        if (!stubConnection.getStubDataSource().isRowBatchMode()) {
+            return decodeStubResultSet(rsSupplier);
+        }
+        try {
+            return new StubRowResultSet(stubConnection, statementId(), rsSupplier, header);
+        } catch (SQLException e) {
+            throw new UnsupportedOperationException("failed to create StubResultSet from recorded data", e);
+        }
+    }
+
     protected Iterable<String> encodeResultSetHeader(ResultSet resultSet) {
         try {
             return ResultSetUtil.encodeHeader(resultSet.getMetaData());
@@ -687,7 +698,7 @@ public class StubStatement implements Statement {
                         new Decoder<ResultSet>() {
                             @Override
                             public ResultSet decode(Iterable<String> values) {
-                                return decodeStubResultSet(rsSupplier);
+                                return decodeStubResultSet(rsSupplier, values);
                             }
                         },
                         new Encoder<ResultSet>() {
@@ -701,7 +712,7 @@ public class StubStatement implements Statement {
     }
 
     /**
-     * returns SimpleResultSet
+     * returns ColumnarResultSet
      * saves full result set in stub
      *
      * @param rsSupplier
@@ -720,12 +731,7 @@ public class StubStatement implements Statement {
                                   return rsSupplier.get();
                               }
                           },
-                        new Decoder<ResultSet>() {
-                            @Override
-                            public ResultSet decode(Iterable<String> values) {
-                                return ResultSetUtil.decode(values);
-                            }
-                        },
+                        new DecoderResultSet(),
                         new Encoder<ResultSet>() {
                             @Override
                             public Iterable<String> encode(ResultSet resultSet) {
@@ -0,0 +1,91 @@
+package org.anystub.it_hikari;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.anystub.AnyStubId;
+import org.anystub.Base;
+import org.anystub.jdbc.StubDataSource;
+import org.anystub.mgmt.BaseManagerFactory;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static java.util.Collections.singletonList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * records rows of a query in row-batch mode and replays them without the database
+ */
+public class JdbcRowBatchTest {
+
+    private static final String QUERY = "SELECT id, name, amount FROM batch_rows ORDER BY id";
+
+    private static DataSource dataSource(String database) {
+        HikariConfig config = new HikariConfig();
+        config.setJdbcUrl("jdbc:h2:mem:" + database + ";DB_CLOSE_DELAY=-1");
+        return new StubDataSource(new HikariDataSource(config))
+                .setStubResultSetMode(true)
+                .setRowBatchMode(true);
+    }
+
+    @Test
+    @AnyStubId(filename = "rowBatchTest")
+    public void testRoundTrip() throws SQLException {
+        Base base = BaseManagerFactory.locate();
+        base.purge();
+
+        try (Connection connection = dataSource("rowBatchRecord").getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE batch_rows(id INT, name VARCHAR(255), amount BIGINT)");
+            statement.execute("INSERT INTO batch_rows VALUES (1, 'one', 10), (2, NULL, NULL), (3, 'three', 30)");
+            try (ResultSet resultSet = statement.executeQuery(QUERY)) {
+                assertRows(resultSet);
+            }
+        }
+
+        // the table doesn't exist in this database, so rows come from the stub-file only
+        base.clear();
+        try (Connection connection = dataSource("rowBatchReplay").getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE batch_rows(id INT, name VARCHAR(255), amount BIGINT)");
+            statement.execute("INSERT INTO batch_rows VALUES (1, 'one', 10), (2, NULL, NULL), (3, 'three', 30)");
+            try (ResultSet resultSet = statement.executeQuery(QUERY)) {
+                assertRows(resultSet);
+            }
+        }
+        assertFalse(base.isNew());
+        assertEquals(1, base.history()
+                .filter(document -> singletonList("false").equals(document.getVals()))
+                .count());
+    }
+
+    private static void assertRows(ResultSet resultSet) throws SQLException {
+        assertTrue(resultSet.next());
+        assertEquals(1, resultSet.getInt("id"));
+        assertEquals("one", resultSet.getString("name"));
+        assertFalse(resultSet.wasNull());
+        assertEquals(10L, resultSet.getLong(3));
+
+        assertTrue(resultSet.next());
+        assertEquals(2, resultSet.getInt(1));
+        assertNull(resultSet.getString("name"));
+        assertTrue(resultSet.wasNull());
+        assertEquals(0L, resultSet.getLong("amount"));
+        assertTrue(resultSet.wasNull());
+
+        assertTrue(resultSet.next());
+        assertEquals(3, resultSet.getInt("id"));
+        assertEquals("three", resultSet.getString(2));
+        assertEquals(30L, resultSet.getLong("amount"));
+        assertFalse(resultSet.wasNull());
+
+        assertFalse(resultSet.next());
+    }
+}
@@ -0,0 +1,150 @@
+package org.anystub.jdbc;
+
+import org.junit.jupiter.api.Test;
+
+import javax.sql.rowset.serial.SerialBlob;
+import java.math.BigDecimal;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Types;
+import java.util.List;
+
+import static java.util.Arrays.asList;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ColumnarResultSetTest {
+
+    private static final List<String> DATA = asList("4",
+            "ID", "INTEGER", "4", "10", "0",
+            "AMOUNT", "BIGINT", "-5", "19", "0",
+            "RATE", "DOUBLE", "8", "17", "0",
+            "NAME/n", "VARCHAR", "12", "255", "0",
+            "1", "10000000000", "1.5", "first",
+            "2", null, null, null,
+            "3", "30", "2.25", "third");
+
+    @Test
+    void testTypedColumns() throws SQLException {
+        ColumnarResultSet resultSet = new ColumnarResultSet(DATA);
+
+        assertTrue(resultSet.next());
+        assertEquals(1, resultSet.getInt(1));
+        assertEquals(1, resultSet.getObject("ID"));
+        assertEquals(10000000000L, resultSet.getLong("AMOUNT"));
+        assertEquals(1.5, resultSet.getDouble("RATE"));
+        assertEquals(new BigDecimal("1.5"), resultSet.getBigDecimal("RATE"));
+        assertEquals("first", resultSet.getString("n"));
+        assertEquals("first", resultSet.getString("NAME"));
+        assertEquals("1", resultSet.getString(1));
+
+        assertTrue(resultSet.next());
+        assertEquals(0L, resultSet.getLong(2));
+        assertTrue(resultSet.wasNull());
+        assertNull(resultSet.getObject(3));
+        assertTrue(resultSet.wasNull());
+        assertNull(resultSet.getString(4));
+        assertEquals(2, resultSet.getInt(1));
+        assertFalse(resultSet.wasNull());
+
+        assertTrue(resultSet.next());
+        assertEquals(30, resultSet.getInt(2));
+        assertFalse(resultSet.next());
+    }
+
+    @Test
+    void testCopy() throws SQLException {
+        ColumnarResultSet resultSet = new ColumnarResultSet(DATA);
+        assertTrue(resultSet.next());
+
+        ColumnarResultSet copy = resultSet.copy();
+        assertEquals(1, resultSet.getInt(1));
+        assertTrue(copy.isBeforeFirst());
+        assertTrue(copy.next());
+        assertTrue(copy.next());
+        assertNull(copy.getObject("RATE"));
+        assertTrue(copy.next());
+        assertEquals("third", copy.getString(4));
+        assertFalse(copy.next());
+
+        copy.close();
+        assertEquals("first", resultSet.getString(4));
+        assertEquals(4, resultSet.copy().getMetaData().getColumnCount());
+    }
+
+    @Test
+    void testCopyMutableValues() throws SQLException {
+        ColumnarResultSet resultSet = new ColumnarResultSet(asList("2",
+                "CREATED", "TIMESTAMP", "93", "26", "6",
+                "DATA", "BLOB", "2004", "0", "0",
+                "1700000000000", SqlTypeEncoder.encodeBlob(new SerialBlob(new byte[]{1, 2, 3}))));
+        ColumnarResultSet copy = resultSet.copy();
+
+        assertTrue(resultSet.next());
+        resultSet.getTimestamp(1).setTime(0);
+        resultSet.getBlob(2).setBytes(1, new byte[]{9});
+        resultSet.getBytes(2)[0] = 9;
+
+        assertTrue(copy.next());
+        assertEquals(1700000000000L, copy.getTimestamp("CREATED").getTime());
+        assertArrayEquals(new byte[]{1, 2, 3}, copy.getBytes("DATA"));
+        assertArrayEquals(new byte[]{1, 2, 3}, resultSet.getBlob(2).getBytes(1, 3));
+    }
+
+    @Test
+    void testScroll() throws SQLException {
+        ColumnarResultSet resultSet = new ColumnarResultSet(DATA);
+
+        assertTrue(resultSet.isBeforeFirst());
+        assertThrows(SQLException.class, () -> resultSet.getInt(1));
+        assertTrue(resultSet.last());
+        assertEquals(3, resultSet.getRow());
+        assertEquals("third", resultSet.getString(4));
+        assertTrue(resultSet.previous());
+        assertEquals(2, resultSet.getInt(1));
+        assertTrue(resultSet.absolute(1));
+        assertTrue(resultSet.isFirst());
+        resultSet.afterLast();
+        assertTrue(resultSet.isAfterLast());
+        assertFalse(resultSet.next());
+        assertEquals(0, resultSet.getRow());
+    }
+
+    @Test
+    void testMetaData() throws SQLException {
+        ColumnarResultSet resultSet = new ColumnarResultSet(DATA);
+        ResultSetMetaData metaData = resultSet.getMetaData();
+
+        assertEquals(4, metaData.getColumnCount());
+        assertEquals("NAME", metaData.getColumnName(4));
+        assertEquals("n", metaData.getColumnLabel(4));
+        assertEquals(Types.BIGINT, metaData.getColumnType(2));
+        assertEquals("DOUBLE", metaData.getColumnTypeName(3));
+        assertThrows(SQLException.class, () -> metaData.getColumnName(5));
+    }
+
+    @Test
+    void testReadOnly() throws SQLException {
+        ColumnarResultSet resultSet = new ColumnarResultSet(DATA);
+        resultSet.next();
+
+        assertThrows(SQLFeatureNotSupportedException.class, () -> resultSet.updateInt(1, 5));
+        resultSet.close();
+        assertTrue(resultSet.isClosed());
+        assertThrows(SQLException.class, () -> resultSet.getInt(1));
+    }
+
+    @Test
+    void testEmpty() throws SQLException {
+        ColumnarResultSet resultSet = new ColumnarResultSet(asList("1", "ID", "INTEGER", "4", "10", "0"));
+
+        assertFalse(resultSet.next());
+        assertFalse(resultSet.isBeforeFirst());
+        assertEquals(1, resultSet.getMetaData().getColumnCount());
+    }
+}
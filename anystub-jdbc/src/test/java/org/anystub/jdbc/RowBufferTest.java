@@ -0,0 +1,64 @@
+package org.anystub.jdbc;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.sql.SQLException;
+import java.util.List;
+
+import static java.util.Arrays.asList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RowBufferTest {
+
+    private static final List<String> HEADER = asList("3",
+            "ID", "INTEGER", "4", "10", "0",
+            "FIRST_NAME/name", "VARCHAR", "12", "255", "0",
+            "SALARY", "DECIMAL", "3", "10", "2");
+
+    @Test
+    void testGetters() throws SQLException {
+        RowBuffer buffer = new RowBuffer(HEADER);
+        assertEquals(3, buffer.columnCount());
+
+        buffer.set(asList("3", "Josh", "10.25"));
+
+        assertEquals(3L, buffer.getLong(1));
+        assertEquals("3", buffer.getString(1));
+        assertEquals("Josh", buffer.getString(buffer.findColumn("name")));
+        assertEquals("Josh", buffer.getString(buffer.findColumn("first_name")));
+        assertEquals(10.25, buffer.getDouble(3));
+        assertEquals(new BigDecimal("10.25"), buffer.getBigDecimal(3));
+        assertFalse(buffer.wasNull());
+    }
+
+    @Test
+    void testNull() throws SQLException {
+        RowBuffer buffer = new RowBuffer(HEADER);
+        buffer.set(asList("4", null, null));
+
+        assertNull(buffer.getString(2));
+        assertTrue(buffer.wasNull());
+        assertEquals(0.0, buffer.getDouble(3));
+        assertTrue(buffer.wasNull());
+        assertEquals(4, buffer.getLong(1));
+        assertFalse(buffer.wasNull());
+    }
+
+    @Test
+    void testNoRow() {
+        RowBuffer buffer = new RowBuffer(HEADER);
+        assertThrows(SQLException.class, () -> buffer.getString(1));
+
+        buffer.set(asList("4", "Josh", "1"));
+        assertThrows(SQLException.class, () -> buffer.getString(4));
+        assertThrows(SQLException.class, () -> buffer.findColumn("unknown"));
+
+        buffer.set(null);
+        assertThrows(SQLException.class, () -> buffer.getLong(1));
+    }
+}